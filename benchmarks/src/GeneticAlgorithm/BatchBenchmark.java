@@ -0,0 +1,73 @@
+package GeneticAlgorithm;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A batch of runs of a fixed number of generations each, spread over
+ * threadCount threads, to measure how the simulator scales. The work is the
+ * same for every thread count.
+ * @author Sage Ralph <SageJeanRalph@Gmail.com>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchBenchmark {
+
+private static final int RUNS = 16;
+private static final int GENERATIONS = 200;
+
+@Param({"1", "2", "4"})
+public int threadCount;
+
+@Param({"FIXED", "WORK_STEALING"})
+public Scheduler scheduler;
+
+@Param({"100"})
+public int populationSize;
+
+@Param({"16"})
+public int geneWidth;
+
+private LogSink log;
+private SimulationConfig config;
+
+@Setup
+public void setUp() {
+    log = Benchmarks.discardLog();
+    config = Benchmarks.config(populationSize, GENERATIONS, geneWidth, "x*x",
+            log);
+}
+
+@TearDown
+public void tearDown() throws InterruptedException {
+    log.close();
+}
+
+@Benchmark
+public int batch() throws InterruptedException {
+    Batch batch = new Batch(config, RUNS, scheduler, threadCount,
+            new SplittableRandom(42));
+    batch.start();
+    int generations = 0;
+    for (Batch.Result result : batch.await()) {
+        generations += result.bestGeneration();
+    }
+    return generations;
+}
+
+}
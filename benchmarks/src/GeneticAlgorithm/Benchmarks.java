@@ -0,0 +1,93 @@
+package GeneticAlgorithm;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs the JMH benchmarks, recording the results as JSON so runs can be
+ * compared for regressions. Also builds the settings the benchmarks share.
+ * @author Sage Ralph <SageJeanRalph@Gmail.com>
+ */
+public class Benchmarks {
+
+private Benchmarks() {
+}
+
+/**
+ * Runs JMH with the arguments given. Results are written to jmh-result.json
+ * unless the arguments choose another result format or file.
+ * @param args JMH options, such as a benchmark pattern or "-p geneWidth=16"
+ * @throws Exception
+ */
+public static void main(String[] args) throws Exception {
+    List<String> options = new ArrayList<>(Arrays.asList(args));
+    if (!options.contains("-rf")) {
+        options.add(0, "-rf");
+        options.add(1, "json");
+    }
+    if (!options.contains("-rff")) {
+        options.add(0, "-rff");
+        options.add(1, "jmh-result.json");
+    }
+    org.openjdk.jmh.Main.main(options.toArray(new String[0]));
+}
+
+/**
+ * @param populationSize
+ * @param maxGenerations
+ * @param geneWidth The number of genes; values range over [0, 2^geneWidth)
+ * @param fitnessFunction
+ * @param log Where the simulation's output goes
+ * @return Settings for runs that never find a known solution, evaluating
+ * fitness on the calling thread
+ */
+static SimulationConfig config(int populationSize, int maxGenerations,
+        int geneWidth, String fitnessFunction, LogSink log) {
+    return config(populationSize, maxGenerations, geneWidth, fitnessFunction,
+            log, SelectionMethod.ROULETTE, Integer.MAX_VALUE);
+}
+
+/**
+ * @param populationSize
+ * @param maxGenerations
+ * @param geneWidth The number of genes; values range over [0, 2^geneWidth)
+ * @param fitnessFunction
+ * @param log Where the simulation's output goes
+ * @param selection The selection method, with its default parameter
+ * @param evaluationThreshold The most members a Generation evaluates on one
+ * thread
+ * @return Settings for runs that never find a known solution
+ */
+static SimulationConfig config(int populationSize, int maxGenerations,
+        int geneWidth, String fitnessFunction, LogSink log,
+        SelectionMethod selection, int evaluationThreshold) {
+    int rangeMax = (int) ((1L << geneWidth) - 1);
+    FitnessFunction fitness = new FitnessFunction(fitnessFunction, 0, true);
+    return new SimulationConfig(
+            populationSize,
+            maxGenerations,
+            1,
+            0.01,
+            selection.create(false, selection.defaultParameter()),
+            0,
+            rangeMax,
+            new FitnessCache(fitness, 0, rangeMax),
+            evaluationThreshold,
+            false,
+            0,
+            false,
+            false,
+            false,
+            log,
+            new Metrics());
+}
+
+/**
+ * @return A sink discarding everything logged
+ */
+static LogSink discardLog() {
+    return new LogSink(text -> {
+    }, null, 1 << 20, LogSink.Policy.DROP);
+}
+
+}
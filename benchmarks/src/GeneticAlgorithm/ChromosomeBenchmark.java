@@ -0,0 +1,103 @@
+package GeneticAlgorithm;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The operators applied to single chromosomes: crossover, mutation, decoding
+ * and fitness lookup. Each invocation works on the next of a fixed set of
+ * random genes, so branch prediction cannot learn a single input.
+ * @author Sage Ralph <SageJeanRalph@Gmail.com>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChromosomeBenchmark {
+
+private static final int INPUTS = 1024; // A power of 2
+
+@Param({"8", "16", "24"})
+public int geneWidth;
+
+private LogSink log;
+private SimulationConfig config;
+private SplittableRandom random;
+private long[] genes;
+private Chromosome[] chromosomes;
+private int[] bits;
+private final long[] offspring = new long[2];
+private int next;
+
+@Setup(Level.Trial)
+public void setUp() {
+    log = Benchmarks.discardLog();
+    config = Benchmarks.config(2, Integer.MAX_VALUE, geneWidth, "x*x", log);
+    random = new SplittableRandom(42);
+    genes = new long[INPUTS];
+    chromosomes = new Chromosome[INPUTS];
+    bits = new int[INPUTS];
+    for (int i = 0; i < INPUTS; i++) {
+        genes[i] = Chromosome.randomGenes(config, random);
+        chromosomes[i] = new Chromosome(config, genes[i]);
+        bits[i] = random.nextInt(config.geneNo());
+    }
+}
+
+@TearDown(Level.Trial)
+public void tearDown() throws InterruptedException {
+    log.close();
+}
+
+private int next() {
+    next = (next + 1) & (INPUTS - 1);
+    return next;
+}
+
+@Benchmark
+public long[] mate() {
+    int i = next();
+    Chromosome.mate(config, genes[i], genes[(i + 1) & (INPUTS - 1)],
+            offspring, 0, random);
+    return offspring;
+}
+
+@Benchmark
+public Chromosome[] mateChromosomes() {
+    int i = next();
+    return Chromosome.mate(chromosomes[i], chromosomes[(i + 1) & (INPUTS - 1)],
+            random);
+}
+
+@Benchmark
+public long mutate() {
+    int i = next();
+    return Chromosome.mutate(config, genes[i], bits[i]);
+}
+
+@Benchmark
+public int value() {
+    return Chromosome.value(config, genes[next()]);
+}
+
+@Benchmark
+public double fitness() {
+    // A new Chromosome, as its fitness is evaluated once and then kept
+    return new Chromosome(config, genes[next()]).fitness();
+}
+
+}
@@ -0,0 +1,72 @@
+package GeneticAlgorithm;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The fitness function, as built from Main.fitnessFunction: evaluated
+ * directly, compiled or by exp4j, and looked up through a FitnessCache. The
+ * range decides whether the cache is a dense table or direct-mapped.
+ * @author Sage Ralph <SageJeanRalph@Gmail.com>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FitnessBenchmark {
+
+private static final int INPUTS = 1024; // A power of 2
+
+@Param({"x*x", "sin(x)*x^2+log(x+1)"})
+public String fitnessFunction;
+
+@Param({"true", "false"})
+public boolean compileFitness;
+
+@Param({"8", "16", "24"})
+public int geneWidth;
+
+private FitnessFunction function;
+private FitnessCache cache;
+private final int[] values = new int[INPUTS];
+private int next;
+
+@Setup
+public void setUp() {
+    int rangeMax = (int) ((1L << geneWidth) - 1);
+    function = new FitnessFunction(fitnessFunction, 0, compileFitness);
+    cache = new FitnessCache(function, 0, rangeMax);
+    SplittableRandom random = new SplittableRandom(42);
+    for (int i = 0; i < INPUTS; i++) {
+        values[i] = random.nextInt(rangeMax + 1);
+    }
+}
+
+private int next() {
+    next = (next + 1) & (INPUTS - 1);
+    return values[next];
+}
+
+@Benchmark
+public double evaluate() {
+    return function.evaluate(next());
+}
+
+@Benchmark
+public double cachedFitness() {
+    return cache.fitness(next());
+}
+
+}
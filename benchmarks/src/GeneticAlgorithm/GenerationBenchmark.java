@@ -0,0 +1,141 @@
+package GeneticAlgorithm;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The operations on a whole population: evaluation, serially and split across
+ * the common pool by evaluationThreshold, finding the fittest, filling a
+ * mating pool with each SelectionMethod, and a full evolutionary step of a
+ * Simulation.
+ * @author Sage Ralph <SageJeanRalph@Gmail.com>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GenerationBenchmark {
+
+@Param({"10", "100", "1000"})
+public int populationSize;
+
+@Param({"8", "16", "24"})
+public int geneWidth;
+
+private LogSink log;
+private SimulationConfig config;
+private SplittableRandom random;
+private long[] genes;
+private Generation evaluated;
+private int elites;
+private Simulation simulation;
+
+@Setup(Level.Trial)
+public void setUp() {
+    log = Benchmarks.discardLog();
+    config = Benchmarks.config(populationSize, Integer.MAX_VALUE, geneWidth,
+            "x*x", log);
+    random = new SplittableRandom(42);
+
+    evaluated = new Generation(config, random);
+    genes = new long[populationSize];
+    for (int i = 0; i < populationSize; i++) {
+        genes[i] = evaluated.genes(i);
+    }
+    evaluated.getFitnessArray(false);
+    elites = Math.max(1, populationSize / 10);
+
+    simulation = new Simulation("1", config, random.split());
+    simulation.start();
+}
+
+@TearDown(Level.Trial)
+public void tearDown() throws InterruptedException {
+    log.close();
+}
+
+@Benchmark
+public double[] getFitnessArray(Evaluation evaluation) {
+    // A new Generation, as a Generation evaluates its members once
+    return new Generation(evaluation.config, genes).getFitnessArray(false);
+}
+
+@Benchmark
+public double[] getFitnessArraySigma(Evaluation evaluation) {
+    return new Generation(evaluation.config, genes).getFitnessArray(true);
+}
+
+@Benchmark
+public int[] fittest() {
+    return evaluated.fittest(elites);
+}
+
+@Benchmark
+public int[] select(Selection selection) {
+    selection.strategy.select(evaluated, selection.pool, random);
+    return selection.pool;
+}
+
+@Benchmark
+public int step() {
+    simulation.step();
+    return simulation.generation();
+}
+
+/**
+ * The settings of the evaluation benchmarks. Populations larger than
+ * evaluationThreshold are evaluated in parallel; the largest value keeps every
+ * population on the calling thread.
+ */
+@State(Scope.Thread)
+public static class Evaluation {
+
+    @Param({"64", "2147483647"})
+    public int evaluationThreshold;
+
+    private SimulationConfig config;
+
+    @Setup(Level.Trial)
+    public void setUp(GenerationBenchmark benchmark) {
+        config = Benchmarks.config(benchmark.populationSize,
+                Integer.MAX_VALUE, benchmark.geneWidth, "x*x", benchmark.log,
+                SelectionMethod.ROULETTE, evaluationThreshold);
+    }
+}
+
+/**
+ * The strategy of the selection benchmark, with its default parameter, and
+ * the mating pool it fills.
+ */
+@State(Scope.Thread)
+public static class Selection {
+
+    @Param({"ROULETTE", "STOCHASTIC_UNIVERSAL", "TOURNAMENT", "RANK",
+        "TRUNCATION"})
+    public SelectionMethod method;
+
+    private SelectionStrategy strategy;
+    private int[] pool;
+
+    @Setup(Level.Trial)
+    public void setUp(GenerationBenchmark benchmark) {
+        strategy = method.create(false, method.defaultParameter());
+        pool = new int[benchmark.populationSize];
+    }
+}
+
+}
@@ -0,0 +1,108 @@
+package GeneticAlgorithm;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks a round trip between an IslandCoordinator and IslandWorkers over
+ * localhost: every worker connects, receives its settings, exchanges migrants
+ * and reports its outcome, and no island is lost. The workers are hosted in
+ * this process, on their own threads and connections.
+ *
+ * Usage: java -cp target/benchmarks.jar GeneticAlgorithm.IslandCheck [islands]
+ * Exits with status 0 if the check passes, and 1 otherwise.
+ * @author Sage Ralph <SageJeanRalph@Gmail.com>
+ */
+public class IslandCheck {
+
+// How long to keep retrying while the coordinator starts listening
+private static final long CONNECT_TIMEOUT = TimeUnit.SECONDS.toNanos(10);
+private static final int GENERATIONS = 5000;
+
+private IslandCheck() {
+}
+
+/**
+ * @param args Optionally the number of islands (default 3)
+ * @throws Exception
+ */
+public static void main(String[] args) throws Exception {
+    int islands = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+    int port;
+    try (ServerSocket probe = new ServerSocket(0)) {
+        port = probe.getLocalPort();
+    }
+
+    // Workers apply the coordinator's settings to Main, so both start there
+    Main.populationSize = 20;
+    Main.maxGenerations = GENERATIONS;
+    Main.rangeMin = 0;
+    Main.rangeMax = 1023;
+    Main.fitnessFunction = "x";
+    Main.allowKnownSolution = false;
+    LogSink log = Benchmarks.discardLog();
+    Metrics metrics = new Metrics();
+    SimulationConfig config = Main.config(new FitnessCache(
+            new FitnessFunction(Main.fitnessFunction,
+                    Main.knownMin, Main.compileFitness),
+            Main.rangeMin, Main.rangeMax), log, metrics);
+    IslandModel model = IslandModel.parse("islands=" + islands
+            + "; interval=10; migrants=2; topology=ring; port=" + port, config);
+
+    ExecutorService executor = Executors.newCachedThreadPool();
+    Future<IslandModel.Result> coordinated = executor.submit(
+            () -> model.runRemote(Main.settings(), new SplittableRandom(1)));
+    List<Future<Void>> workers = new ArrayList<>();
+    for (int i = 0; i < islands; i++) {
+        workers.add(executor.submit(() -> {
+            host(port, log, metrics);
+            return null;
+        }));
+    }
+
+    boolean passed = true;
+    IslandModel.Result result = coordinated.get(2, TimeUnit.MINUTES);
+    for (int i = 0; i < islands; i++) {
+        if (result.isLost(i) || result.generations(i) != GENERATIONS) {
+            passed = false;
+        }
+    }
+    for (Future<Void> worker : workers) {
+        worker.get(1, TimeUnit.MINUTES);
+    }
+    executor.shutdown();
+    log.close();
+
+    System.out.print(result.describe());
+    System.out.println(passed ? "Island round trip passed"
+            : "Island round trip FAILED");
+    System.exit(passed ? 0 : 1);
+}
+
+/**
+ * Hosts one island, retrying until the coordinator is listening.
+ */
+private static void host(int port, LogSink log, Metrics metrics)
+        throws IOException, InterruptedException {
+    long deadline = System.nanoTime() + CONNECT_TIMEOUT;
+    while (true) {
+        try {
+            IslandWorker.host("localhost", port, log, metrics);
+            return;
+        } catch (ConnectException e) {
+            if (System.nanoTime() > deadline) {
+                throw e;
+            }
+            Thread.sleep(50);
+        }
+    }
+}
+
+}
@@ -0,0 +1,55 @@
+package GeneticAlgorithm;
+
+/**
+ * The catalogue of fitness landscapes used by MacroBenchmark. Each is a
+ * fitness expression fitted to a range, so the same landscape can be
+ * stretched over ranges of any size. Every landscape is positive over its
+ * range, as fitness proportional selection requires.
+ * @author Sage Ralph <SageJeanRalph@Gmail.com>
+ */
+public enum Landscape {
+
+UNIMODAL("A single smooth peak at the centre of the range"),
+DECEPTIVE("A broad slope away from a narrow peak at the top of the range"),
+MULTIMODAL("Rastrigin's function, a grid of local peaks around the centre"),
+PLATEAU("Eight flat steps rising to the top of the range, each narrower");
+
+private final String description;
+
+Landscape(String description) {
+    this.description = description;
+}
+
+public String description() {
+    return description;
+}
+
+/**
+ * @param min The lowest value of the range
+ * @param max The highest value of the range
+ * @return The landscape's fitness expression over [min, max]
+ */
+public String expression(int min, int max) {
+
+    // Position within the range, from 0 at min to 1 at max
+    String u = "((x" + (min > 0 ? "-" + min : "+" + (-(long) min)) + ")/"
+            + Math.max(1L, (long) max - min) + ")";
+    switch (this) {
+        case UNIMODAL:
+            return "1000*(1-(2*" + u + "-1)^2)";
+        case DECEPTIVE:
+            // Falls from 800 at min to 0 near max, then leaps to 1000 at max
+            String peak = "(20*" + u + "-19)";
+            return "1000*(0.8*(1-" + u + ")+(" + peak + "+abs(" + peak
+                    + "))/2)";
+        case MULTIMODAL:
+            // Rastrigin's function over [-5.12, 5.12], inverted
+            String s = "(10.24*" + u + "-5.12)";
+            return "50-(10+" + s + "^2-10*cos(6.283185307179586*" + s + "))";
+        default:
+            // The top step is the last 0.4% of the range
+            return "floor(7.999*" + u + "^32)+1";
+    }
+}
+
+}
@@ -0,0 +1,369 @@
+package GeneticAlgorithm;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * End-to-end benchmarks: batches of complete runs over each landscape of the
+ * catalogue, repeated for each thread count. For every batch it reports the
+ * generations taken to reach the landscape's maximum, fitness evaluations
+ * per second, wall time per run, allocation rate, and the speedup and
+ * scaling efficiency relative to the first thread count. Results are
+ * written as CSV or JSON, so they can be compared between releases.
+ *
+ * Every batch of a landscape uses the same seed, so each thread count
+ * performs the same runs. Runs are timed individually, so batches are
+ * scheduled here rather than through Batch, and fitness is evaluated on the
+ * run's own thread so its allocations can be attributed to it.
+ * @author Sage Ralph <SageJeanRalph@Gmail.com>
+ */
+public class MacroBenchmark {
+
+private static final String USAGE = ""
+        + "Usage: java -cp target/benchmarks.jar GeneticAlgorithm.MacroBenchmark"
+        + " [key=value]...\n"
+        + "  landscapes      Comma separated, of UNIMODAL, DECEPTIVE, MULTIMODAL,\n"
+        + "                  PLATEAU (default: all)\n"
+        + "  rangeMin        Lowest value (default: 0)\n"
+        + "  rangeMax        Highest value (default: 65535)\n"
+        + "  threads         Comma separated thread counts (default: 1, 2, 4...\n"
+        + "                  up to one per processor)\n"
+        + "  runs            Runs per batch (default: 32)\n"
+        + "  populationSize, maxGenerations, elitism, mutationChance,\n"
+        + "  selection, scheduler, seed\n"
+        + "  format          csv or json (default: csv)\n"
+        + "  output          File to write (default: standard output)\n";
+
+private static final List<String> KEYS = Arrays.asList("landscapes",
+        "rangeMin", "rangeMax", "threads", "runs", "populationSize",
+        "maxGenerations", "elitism", "mutationChance", "selection",
+        "scheduler", "seed", "format", "output");
+
+private static final String[] COLUMNS = {"landscape", "rangeMin", "rangeMax",
+    "threads", "runs", "solved", "generationsToSolution", "meanRunMs",
+    "maxRunMs", "wallMs", "evaluations", "evaluationsPerSecond",
+    "allocatedMB", "allocationMBPerSecond", "speedup", "efficiency"};
+
+private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+// Settings
+private List<Landscape> landscapes = new ArrayList<>();
+private int rangeMin = 0, rangeMax = 65535;
+private final List<Integer> threadCounts = new ArrayList<>();
+private int runs = 32;
+private int populationSize = 100, maxGenerations = 1000, elitism = 1;
+private double mutationChance = 0.01;
+private SelectionMethod selection = SelectionMethod.ROULETTE;
+private Scheduler scheduler = Scheduler.FIXED;
+private long seed = 42;
+
+/**
+ * @param args key=value settings, as described by USAGE
+ */
+public static void main(String[] args) {
+    Properties settings = new Properties();
+    for (String arg : args) {
+        int equals = arg.indexOf('=');
+        if (equals <= 0) {
+            System.err.print(USAGE);
+            System.exit(arg.equals("-h") || arg.equals("--help") ? 0 : 2);
+        }
+        settings.setProperty(arg.substring(0, equals).trim(),
+                arg.substring(equals + 1).trim());
+    }
+
+    MacroBenchmark benchmark = new MacroBenchmark();
+    String format = settings.getProperty("format", "csv");
+    String output = settings.getProperty("output", "");
+    try {
+        benchmark.configure(settings);
+        if (!format.equals("csv") && !format.equals("json")) {
+            throw new IllegalArgumentException("Unknown format " + format);
+        }
+    } catch (IllegalArgumentException e) {
+        System.err.println(e.getMessage() + "\n");
+        System.err.print(USAGE);
+        System.exit(2);
+    }
+
+    try {
+        List<String[]> rows = benchmark.run();
+        PrintStream out = output.isEmpty() ? System.out
+                : new PrintStream(Files.newOutputStream(Paths.get(output)),
+                        false, "UTF-8");
+        if (format.equals("json")) {
+            writeJson(rows, out);
+        } else {
+            writeCsv(rows, out);
+        }
+        out.flush();
+        if (out.checkError()) {
+            throw new IOException("Cannot write " + output);
+        }
+    } catch (IOException | InterruptedException | ExecutionException e) {
+        System.err.println("Benchmark failed: " + e);
+        System.exit(1);
+    }
+    System.exit(0);
+}
+
+private void configure(Properties settings) {
+    for (String key : settings.stringPropertyNames()) {
+        if (!KEYS.contains(key)) {
+            throw new IllegalArgumentException("Unknown setting " + key);
+        }
+    }
+
+    for (String name : settings.getProperty("landscapes",
+            "UNIMODAL,DECEPTIVE,MULTIMODAL,PLATEAU").split(",")) {
+        landscapes.add(Landscape.valueOf(name.trim()));
+    }
+    rangeMin = Integer.parseInt(settings.getProperty("rangeMin", "" + rangeMin));
+    rangeMax = Integer.parseInt(settings.getProperty("rangeMax", "" + rangeMax));
+    String threads = settings.getProperty("threads", "");
+    if (threads.isEmpty()) {
+        int processors = Runtime.getRuntime().availableProcessors();
+        for (int count = 1; count < processors; count *= 2) {
+            threadCounts.add(count);
+        }
+        threadCounts.add(processors);
+    } else {
+        for (String count : threads.split(",")) {
+            threadCounts.add(Integer.parseInt(count.trim()));
+        }
+    }
+    runs = Integer.parseInt(settings.getProperty("runs", "" + runs));
+    populationSize = Integer.parseInt(settings.getProperty("populationSize",
+            "" + populationSize));
+    maxGenerations = Integer.parseInt(settings.getProperty("maxGenerations",
+            "" + maxGenerations));
+    elitism = Integer.parseInt(settings.getProperty("elitism", "" + elitism));
+    mutationChance = Double.parseDouble(settings.getProperty("mutationChance",
+            "" + mutationChance));
+    selection = SelectionMethod.valueOf(settings.getProperty("selection",
+            selection.name()));
+    scheduler = Scheduler.valueOf(settings.getProperty("scheduler",
+            scheduler.name()));
+    seed = Long.parseLong(settings.getProperty("seed", "" + seed));
+
+    if (rangeMin > rangeMax || runs < 1 || threadCounts.contains(0)) {
+        throw new IllegalArgumentException(
+                "The range must not be empty, and counts must be at least 1");
+    }
+}
+
+/**
+ * Runs a batch for every landscape and thread count.
+ * @return A row of results for each batch, in COLUMNS order
+ * @throws InterruptedException
+ * @throws ExecutionException If a run failed
+ */
+private List<String[]> run() throws InterruptedException, ExecutionException {
+    List<String[]> rows = new ArrayList<>();
+    for (Landscape landscape : landscapes) {
+        String expression = landscape.expression(rangeMin, rangeMax);
+        double knownMax = maximum(expression);
+
+        // Untimed, so the first thread count isn't measured before the JIT
+        // has compiled the simulator
+        batch(landscape, expression, knownMax, threadCounts.get(0));
+
+        BatchResult first = null;
+        for (int threadCount : threadCounts) {
+            BatchResult measurement = batch(landscape, expression, knownMax,
+                    threadCount);
+            if (first == null) {
+                first = measurement;
+            }
+            rows.add(measurement.row(first));
+            System.err.println(landscape + " x " + threadCount + " threads: "
+                    + measurement.wallNanos / 1_000_000 + "ms");
+        }
+    }
+    return rows;
+}
+
+/**
+ * @return The highest fitness of the expression over the range, which ends
+ * a run when reached
+ */
+private double maximum(String expression) {
+    FitnessFunction function = new FitnessFunction(expression, 0, true);
+    double max = Double.NEGATIVE_INFINITY;
+    for (long x = rangeMin; x <= rangeMax; x++) {
+        max = Math.max(max, function.evaluate(x));
+    }
+    return max;
+}
+
+private BatchResult batch(Landscape landscape, String expression,
+        double knownMax, int threadCount)
+        throws InterruptedException, ExecutionException {
+    LogSink log = new LogSink(text -> {
+    }, null, 1 << 20, LogSink.Policy.DROP);
+    SimulationConfig config = new SimulationConfig(
+            populationSize,
+            maxGenerations,
+            elitism,
+            mutationChance,
+            selection.create(false, selection.defaultParameter()),
+            rangeMin,
+            rangeMax,
+            new FitnessCache(new FitnessFunction(expression, 0, true),
+                    rangeMin, rangeMax),
+            Integer.MAX_VALUE, // Evaluate on the run's own thread
+            true,
+            knownMax,
+            false,
+            false,
+            false,
+            log,
+            new Metrics());
+
+    SplittableRandom master = new SplittableRandom(seed);
+    List<SplittableRandom> streams = new ArrayList<>();
+    for (int i = 0; i < runs; i++) {
+        streams.add(master.split());
+    }
+
+    BatchResult measurement = new BatchResult(landscape, threadCount);
+    ExecutorService executor = scheduler.create(threadCount);
+    List<Future<long[]>> results = new ArrayList<>();
+    long start = System.nanoTime();
+    for (int i = 0; i < runs; i++) {
+        Simulation simulation = new Simulation("" + (i + 1), config,
+                streams.get(i));
+        results.add(executor.submit(() -> run(simulation)));
+    }
+    executor.shutdown();
+    for (Future<long[]> result : results) {
+        measurement.add(result.get());
+    }
+    measurement.wallNanos = System.nanoTime() - start;
+    measurement.evaluations = config.fitnessCache().lookups();
+    log.close();
+    return measurement;
+}
+
+/**
+ * @return The run's wall time, allocated bytes (or -1 if unknown), whether
+ * it was solved, and the generation of its best fitness
+ */
+private static long[] run(Simulation simulation) {
+    long allocated = allocatedBytes();
+    long start = System.nanoTime();
+    simulation.run();
+    long nanos = System.nanoTime() - start;
+    long after = allocatedBytes();
+    return new long[]{nanos, allocated < 0 || after < 0 ? -1 : after - allocated,
+        simulation.isSolved() ? 1 : 0, simulation.bestGeneration()};
+}
+
+/**
+ * @return The bytes allocated by the current thread so far, or -1 if the JVM
+ * does not count them
+ */
+private static long allocatedBytes() {
+    if (THREADS instanceof com.sun.management.ThreadMXBean) {
+        return ((com.sun.management.ThreadMXBean) THREADS)
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+    return -1;
+}
+
+/**
+ * The totals of one batch.
+ */
+private final class BatchResult {
+
+    final Landscape landscape;
+    final int threadCount;
+    long wallNanos, runNanos, maxRunNanos, allocated, evaluations;
+    int solved;
+    long solvedGenerations;
+
+    BatchResult(Landscape landscape, int threadCount) {
+        this.landscape = landscape;
+        this.threadCount = threadCount;
+    }
+
+    void add(long[] run) {
+        runNanos += run[0];
+        maxRunNanos = Math.max(maxRunNanos, run[0]);
+        allocated = allocated < 0 || run[1] < 0 ? -1 : allocated + run[1];
+        if (run[2] == 1) {
+            solved++;
+            solvedGenerations += run[3];
+        }
+    }
+
+    /**
+     * @param first The batch of the first thread count, the baseline
+     */
+    String[] row(BatchResult first) {
+        double seconds = wallNanos / 1e9;
+        double megabytes = allocated / 1e6;
+        double speedup = (double) first.wallNanos / wallNanos;
+        return new String[]{
+            landscape.name(),
+            "" + rangeMin,
+            "" + rangeMax,
+            "" + threadCount,
+            "" + runs,
+            "" + solved,
+            solved == 0 ? "" : format((double) solvedGenerations / solved),
+            format(runNanos / 1e6 / runs),
+            format(maxRunNanos / 1e6),
+            format(wallNanos / 1e6),
+            "" + evaluations,
+            format(evaluations / seconds),
+            allocated < 0 ? "" : format(megabytes),
+            allocated < 0 ? "" : format(megabytes / seconds),
+            format(speedup),
+            format(speedup * first.threadCount / threadCount)};
+    }
+}
+
+private static String format(double value) {
+    return String.format(Locale.ROOT, "%.2f", value);
+}
+
+private static void writeCsv(List<String[]> rows, PrintStream out) {
+    out.println(String.join(",", COLUMNS));
+    for (String[] row : rows) {
+        out.println(String.join(",", row));
+    }
+}
+
+/**
+ * Writes the rows as an array of objects. Blank values are written as null;
+ * everything but the landscape is a number.
+ */
+private static void writeJson(List<String[]> rows, PrintStream out) {
+    out.println("[");
+    for (int r = 0; r < rows.size(); r++) {
+        String[] row = rows.get(r);
+        StringBuilder object = new StringBuilder("  {");
+        for (int c = 0; c < COLUMNS.length; c++) {
+            object.append(c == 0 ? "" : ", ").append('"').append(COLUMNS[c])
+                    .append("\": ").append(c == 0 ? '"' + row[c] + '"'
+                    : row[c].isEmpty() ? "null" : row[c]);
+        }
+        out.println(object.append(r < rows.size() - 1 ? "}," : "}"));
+    }
+    out.println("]");
+}
+
+}
@@ -0,0 +1,85 @@
+package GeneticAlgorithm;
+import java.util.SplittableRandom;
+
+/**
+ * Walker's alias method (Vose's variant) for sampling indexes in proportion
+ * to a set of weights. Building the table is O(n), after which each sample is
+ * O(1) and can never fall off the end through floating point drift.
+ * @author Sage Ralph <SageJeanRalph@Gmail.com>
+ */
+public class AliasTable {
+
+private final double[] probability;
+private final int[] alias;
+
+/**
+ * Negative and NaN weights are treated as 0. If no weight is positive every
+ * index is equally likely.
+ * @param weights The relative likelihood of each index being sampled
+ */
+public AliasTable(double[] weights) {
+    int n = weights.length;
+    probability = new double[n];
+    alias = new int[n];
+
+    double total = 0;
+    for (double w : weights) {
+        total += w > 0 ? w : 0;
+    }
+
+    // Scale weights so that the average is 1
+    double[] scaled = new double[n];
+    for (int i = 0; i < n; i++) {
+        if (total > 0 && total < Double.POSITIVE_INFINITY) {
+            scaled[i] = weights[i] > 0 ? weights[i] * n / total : 0;
+        } else {
+            scaled[i] = 1;
+        }
+    }
+
+    // Pair each under-full column with an over-full one
+    int[] small = new int[n];
+    int[] large = new int[n];
+    int smallCount = 0, largeCount = 0;
+    for (int i = 0; i < n; i++) {
+        if (scaled[i] < 1) {
+            small[smallCount++] = i;
+        } else {
+            large[largeCount++] = i;
+        }
+    }
+
+    while (smallCount > 0 && largeCount > 0) {
+        int s = small[--smallCount];
+        int l = large[--largeCount];
+
+        probability[s] = scaled[s];
+        alias[s] = l;
+
+        scaled[l] = (scaled[l] + scaled[s]) - 1;
+        if (scaled[l] < 1) {
+            small[smallCount++] = l;
+        } else {
+            large[largeCount++] = l;
+        }
+    }
+
+    // Whatever remains is full, up to rounding error
+    while (largeCount > 0) {
+        probability[large[--largeCount]] = 1;
+    }
+    while (smallCount > 0) {
+        probability[small[--smallCount]] = 1;
+    }
+}
+
+/**
+ * @param random The source of randomness
+ * @return A randomly selected index
+ */
+public int sample(SplittableRandom random) {
+    int column = random.nextInt(probability.length);
+    return random.nextDouble() < probability[column] ? column : alias[column];
+}
+
+}
@@ -0,0 +1,157 @@
+package GeneticAlgorithm;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A number of runs of one configuration, each submitted to an executor by
+ * start(). Every run has its own result Future, and the whole batch can be
+ * cancelled at any time, even before it is started.
+ * @author Sage Ralph <SageJeanRalph@Gmail.com>
+ */
+public class Batch {
+
+private final ExecutorService executor;
+private final List<Simulation> simulations = new ArrayList<>();
+private final List<Future<Result>> results = new ArrayList<>();
+private volatile boolean cancelled;
+
+/**
+ * Prepares the runs of a batch, without starting them.
+ * @param config The settings of every run
+ * @param runCount The number of runs
+ * @param scheduler How runs are scheduled onto threads
+ * @param threadCount The number of threads, for pooled schedulers
+ * @param random The source of randomness, split into a stream for each run
+ */
+public Batch(SimulationConfig config, int runCount, Scheduler scheduler,
+        int threadCount, SplittableRandom random) {
+
+    // Split every stream up front, so results don't depend on scheduling
+    for (int i = 1; i <= runCount; i++) {
+        simulations.add(new Simulation("" + i, config, random.split()));
+    }
+
+    executor = scheduler.create(threadCount);
+}
+
+/**
+ * Submits every run, unless the batch has already been cancelled. Must be
+ * called once, before await().
+ */
+public synchronized void start() {
+    if (cancelled) {
+        return;
+    }
+    for (Simulation simulation : simulations) {
+        results.add(executor.submit(() -> new Result(simulation.run(),
+                simulation.bestFitness())));
+    }
+    executor.shutdown();
+}
+
+/**
+ * @return The result of each run, in run order
+ */
+public List<Future<Result>> results() {
+    return results;
+}
+
+/**
+ * Stops every run, including those already in progress, which finish at the
+ * end of their current generation. May be called from any thread.
+ */
+public synchronized void cancel() {
+    cancelled = true;
+    for (Simulation simulation : simulations) {
+        simulation.cancel();
+    }
+    for (Future<Result> result : results) {
+        result.cancel(true);
+    }
+    executor.shutdownNow();
+}
+
+public boolean isCancelled() {
+    return cancelled;
+}
+
+/**
+ * Waits for every run to finish. If the batch is cancelled or a run fails,
+ * waits for the runs in progress to stop before returning, so none are left
+ * writing to the log.
+ * @return The result of each run, in run order
+ * @throws InterruptedException
+ * @throws CancellationException If the batch was cancelled
+ * @throws RuntimeException Any exception thrown by a run
+ */
+public List<Result> await() throws InterruptedException {
+    List<Result> done = new ArrayList<>();
+    try {
+        if (cancelled && results.isEmpty()) {
+            throw new CancellationException(); // Cancelled before starting
+        }
+        for (Future<Result> result : results) {
+            done.add(result.get());
+        }
+    } catch (CancellationException e) {
+        awaitTermination();
+        throw e;
+    } catch (ExecutionException e) {
+        cancel();
+        awaitTermination();
+        if (e.getCause() instanceof RuntimeException) {
+            throw (RuntimeException) e.getCause();
+        }
+        if (e.getCause() instanceof Error) {
+            throw (Error) e.getCause();
+        }
+        throw new IllegalStateException(e.getCause());
+    } catch (InterruptedException e) {
+        cancel();
+        awaitTermination();
+        throw e;
+    }
+    return done;
+}
+
+/**
+ * Waits for the runs in progress to stop after a cancel. Not every scheduler
+ * interrupts them, so each finishes its current generation first.
+ * @throws InterruptedException
+ */
+private void awaitTermination() throws InterruptedException {
+    executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+}
+
+/**
+ * The outcome of one run.
+ */
+public static final class Result {
+
+    private final int bestGeneration;
+    private final double bestFitness;
+
+    Result(int bestGeneration, double bestFitness) {
+        this.bestGeneration = bestGeneration;
+        this.bestFitness = bestFitness;
+    }
+
+    /**
+     * @return The generation in which the best fitness was first reached
+     */
+    public int bestGeneration() {
+        return bestGeneration;
+    }
+
+    public double bestFitness() {
+        return bestFitness;
+    }
+}
+
+}
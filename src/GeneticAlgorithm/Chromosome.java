@@ -1,70 +1,92 @@
 package GeneticAlgorithm;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * @author Sage Ralph <SageJeanRalph@Gmail.com>
  */
 public class Chromosome {
 
-private static int rangeMod = 0;
-private static int geneNo = -1;
-public static int min, max;
-
-private String genes;
-// Values are calculated when first needed, this makes repeated Chromosome 
-// creation (typically when failing validation) much quicker.
+private final SimulationConfig config;
+// Genes are packed into the low geneNo bits, gene 0 being the most significant.
+// The range is an int interval, so a single long always suffices.
+private long genes;
+// Fitness is calculated when first needed
 private boolean fitnessOutdated = true;
-private boolean valueOutdated = true;
 private double fitness;
-private int value;
 
 /**
  * Creates a new Chromosome with the genes provided. No validation is performed.
+ * @param config The simulation's settings
  * @param genes
  */
-public Chromosome(String genes) {
+public Chromosome(SimulationConfig config, long genes) {
+    this.config = config;
     this.genes = genes;
 }
 
 /**
- * Creates a new chromosome with random genes (bounded by the range)
+ * Creates a new Chromosome with the genes and known fitness provided.
+ * @param config The simulation's settings
+ * @param genes
+ * @param fitness
  */
-public Chromosome() {
-
-    // Only on creation of first Chromosome
-    if (geneNo == -1) {
+public Chromosome(SimulationConfig config, long genes, double fitness) {
+    this.config = config;
+    this.genes = genes;
+    this.fitness = fitness;
+    this.fitnessOutdated = false;
+}
 
-        // Shift range so min is always encoded as binary 0
-        rangeMod = 0 - min;
+/**
+ * Creates a new chromosome with random genes (bounded by the range)
+ * @param config The simulation's settings
+ * @param random The source of randomness
+ */
+public Chromosome(SimulationConfig config, SplittableRandom random) {
+    this(config, randomGenes(config, random));
+}
 
-        // Calculate nessesary gene number     
-        String maxBinary = binaryString(max);
-        geneNo = maxBinary.length();
-    }
+/**
+ * @param config The simulation's settings
+ * @param random The source of randomness
+ * @return Random genes (bounded by the range)
+ */
+public static long randomGenes(SimulationConfig config,
+        SplittableRandom random) {
 
     // Pick random value
-    Random random = new Random();
-    value = random.nextInt((max - min) + 1) + min;
-    this.genes = binaryString(value);
-}
-
-public static void reset() {
-    geneNo = -1;
+    return random.nextLong((long) config.rangeMax() - config.rangeMin() + 1);
 }
 
-public String genes() {
+/**
+ * @return The genes packed into the low bits of a long
+ */
+public long genes() {
     return genes;
 }
 
-private static String binaryString(int value) {
+/**
+ * @return The genes as a binary string, for logging
+ */
+public String geneString() {
+    return geneString(config, genes);
+}
 
-    String binary = Integer.toBinaryString(value + rangeMod);
+/**
+ * @param config The simulation's settings
+ * @param genes Packed genes
+ * @return The genes as a binary string, for logging
+ */
+public static String geneString(SimulationConfig config, long genes) {
+    int geneNo = config.geneNo();
+    String binary = Long.toBinaryString(genes);
 
     // prepend 0s to match length
-    while (binary.length() < geneNo) {
-        binary = "0" + binary;
+    StringBuilder padded = new StringBuilder(geneNo);
+    for (int i = binary.length(); i < geneNo; i++) {
+        padded.append('0');
     }
-    return binary;
+    return padded.append(binary).toString();
 }
 
 /**
@@ -74,7 +96,7 @@ public double fitness() {
 
     // Allow caching of fitness for efficiency
     if (fitnessOutdated) {
-        fitness = Main.fitnessFunction(value());
+        fitness = config.fitness(value());
         fitnessOutdated = false;
     }
     return fitness;
@@ -84,64 +106,139 @@ public double fitness() {
  * @return The value represented by this chromosome
  */
 public int value() {
+    return value(config, genes);
+}
 
-    // Allow caching of value for efficiency
-    if (valueOutdated) {
-        value = Integer.parseInt(genes, 2) - rangeMod;
-        valueOutdated = false;
-    }
-    return value;
+/**
+ * @param config The simulation's settings
+ * @param genes Packed genes
+ * @return The value represented by genes
+ */
+public static int value(SimulationConfig config, long genes) {
+    return (int) (genes - config.rangeMod());
 }
 
 /**
  * Mates two chromosomes with a random crossover point.
  * @param c1 Chromosome 1
  * @param c2 Chromosome 2
+ * @param random The source of randomness
  * @return The children of Chromosomes 1 and 2
  */
-public static Chromosome[] mate(Chromosome c1, Chromosome c2) {
-    Random random = new Random();
-    Chromosome[] children = new Chromosome[2];
-
-    // Keep trying diffrent crossover points until both children are valid
-    do {
-        int crossoverPoint = random.nextInt(c1.genes.length() - 2);
-
-        String c1p1 = c1.genes.substring(0, crossoverPoint);
-        String c1p2 = c1.genes.substring(crossoverPoint);
-        String c2p1 = c2.genes.substring(0, crossoverPoint);
-        String c2p2 = c2.genes.substring(crossoverPoint);
+public static Chromosome[] mate(Chromosome c1, Chromosome c2,
+        SplittableRandom random) {
+    long[] children = new long[2];
+    mate(c1.config, c1.genes, c2.genes, children, 0, random);
+    return new Chromosome[]{
+        new Chromosome(c1.config, children[0]),
+        new Chromosome(c1.config, children[1])};
+}
 
-        children[0] = new Chromosome(c1p1 + c2p2);
-        children[1] = new Chromosome(c2p1 + c1p2);
+/**
+ * Mates two sets of packed genes with a random crossover point, chosen
+ * uniformly from those at which both children stay within the range. Crossing
+ * over at gene 0 swaps the parents whole, so there is always such a point, and
+ * the time taken is bounded by the number of genes.
+ * @param config The simulation's settings
+ * @param p1 Genes of parent 1
+ * @param p2 Genes of parent 2
+ * @param offspring Array in which to store the children's genes
+ * @param index Index of offspring at which to store the first child, the
+ * second child is stored at index + 1
+ * @param random The source of randomness
+ */
+public static void mate(SimulationConfig config, long p1, long p2,
+        long[] offspring, int index, SplittableRandom random) {
+    int geneNo = config.geneNo();
+    int points = Math.max(1, geneNo - 2);
+    int crossoverPoint;
+
+    if (config.rangeMax() + config.rangeMod() == (1L << geneNo) - 1) {
+        // Every arrangement of genes is within the range
+        crossoverPoint = random.nextInt(points);
+    } else {
+        // Bit i is set if both children of crossover point i are valid
+        long validPoints = 0;
+        for (int i = 0; i < points; i++) {
+            long tail = (1L << (geneNo - i)) - 1;
+            if (valid(config, (p1 & ~tail) | (p2 & tail))
+                    && valid(config, (p2 & ~tail) | (p1 & tail))) {
+                validPoints |= 1L << i;
+            }
+        }
+        int valid = Long.bitCount(validPoints);
+        if (valid < points) {
+            config.metrics().crossoverPointsExcluded(points - valid);
+        }
+
+        // Skip to the chosen valid point
+        for (int skip = random.nextInt(valid); skip > 0; skip--) {
+            validPoints &= validPoints - 1;
+        }
+        crossoverPoint = Long.numberOfTrailingZeros(validPoints);
+    }
 
-    } while (!(children[0].valid() && children[1].valid()));
+    // Genes from the crossover point onwards are the low order bits
+    long tail = (1L << (geneNo - crossoverPoint)) - 1;
 
-    return children;
+    offspring[index] = (p1 & ~tail) | (p2 & tail);
+    offspring[index + 1] = (p2 & ~tail) | (p1 & tail);
 }
 
 public void mutate(int bit) {
-    String originalGenes = genes.substring(0); // Get value, not pointer
-
-    Character nb = genes.charAt(bit) == '0' ? '1' : '0';
-    genes = genes.substring(0, bit) + nb + genes.substring(bit + 1);
-
-    valueOutdated = true;
+    genes = mutate(config, genes, bit);
     fitnessOutdated = true;
+}
 
-    if (!valid()) {
-        // TODO shouldn't just give up
-        genes = originalGenes;
+/**
+ * Flips one gene. If that leaves the range, the other genes that are set are
+ * cleared, most significant first, until the value is back within it. The
+ * flipped gene alone is only beyond the range when the range is a single
+ * value, and then the genes are left as they were.
+ * @param config The simulation's settings
+ * @param genes Packed genes
+ * @param bit Index of the gene to flip
+ * @return The mutated genes
+ */
+public static long mutate(SimulationConfig config, long genes, int bit) {
+    long flipped = 1L << (config.geneNo() - 1 - bit);
+    long mutated = genes ^ flipped;
+
+    if (!valid(config, mutated)) {
+        config.metrics().mutationRepaired();
+        long others = mutated & ~flipped;
+        while (others != 0 && !valid(config, mutated)) {
+            long highest = Long.highestOneBit(others);
+            others &= ~highest;
+            mutated &= ~highest;
+        }
+        if (!valid(config, mutated)) {
+            return genes;
+        }
     }
+    return mutated;
 }
 
 @Override
 public String toString() {
-    return genes + " (" + value() + ")";
+    return toString(config, genes);
+}
+
+/**
+ * @param config The simulation's settings
+ * @param genes Packed genes
+ * @return The genes and the value they represent, for logging
+ */
+public static String toString(SimulationConfig config, long genes) {
+    return geneString(config, genes) + " (" + value(config, genes) + ")";
 }
 
 public boolean valid() {
-    return (value() >= min && value() <= max);
+    return valid(config, genes);
+}
+
+private static boolean valid(SimulationConfig config, long genes) {
+    return genes <= config.rangeMax() + config.rangeMod();
 }
 
 }
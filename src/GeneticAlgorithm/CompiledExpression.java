@@ -0,0 +1,15 @@
+package GeneticAlgorithm;
+
+/**
+ * A fitness expression compiled to a JVM class by ExpressionCompiler.
+ * @author Sage Ralph <SageJeanRalph@Gmail.com>
+ */
+public interface CompiledExpression {
+
+/**
+ * @param x The value of the variable x
+ * @return The value of the expression at x
+ */
+double apply(double x);
+
+}
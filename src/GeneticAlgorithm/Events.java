@@ -0,0 +1,115 @@
+package GeneticAlgorithm;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Java Flight Recorder events for runs, generations and the phases of a
+ * generation, so a simulation's activity can be lined up with GC and CPU
+ * samples. Events cost next to nothing while no recording is enabled, and
+ * generations and phases shorter than their threshold are not recorded, so
+ * they can be left enabled. Thresholds can be changed in a recording's
+ * settings, as for any JFR event.
+ * @author Sage Ralph <SageJeanRalph@Gmail.com>
+ */
+public final class Events {
+
+private Events() {
+}
+
+@Name("GeneticAlgorithm.Run")
+@Label("Run")
+@Category("Genetic Algorithm")
+@Description("A simulation from its initial population to its last generation")
+@StackTrace(false)
+public static class Run extends Event {
+
+    @Label("Run")
+    String run;
+
+    @Label("Population Size")
+    int populationSize;
+
+    @Label("Generations")
+    int generations;
+
+    @Label("Best Fitness")
+    double bestFitness;
+
+    @Label("Best Generation")
+    int bestGeneration;
+
+    @Label("Solved")
+    @Description("Whether the known solution was reached")
+    boolean solved;
+}
+
+@Name("GeneticAlgorithm.Generation")
+@Label("Generation")
+@Category("Genetic Algorithm")
+@Description("Evolving and evaluating one generation")
+@Threshold("1 ms")
+@StackTrace(false)
+public static class Generation extends Event {
+
+    @Label("Run")
+    String run;
+
+    @Label("Generation")
+    int generation;
+
+    @Label("Population Size")
+    int populationSize;
+
+    @Label("Best Fitness")
+    @Description("The best fitness of the run so far")
+    double bestFitness;
+}
+
+/**
+ * A phase of a generation.
+ */
+@Category("Genetic Algorithm")
+@Threshold("1 ms")
+@StackTrace(false)
+public abstract static class Phase extends Event {
+
+    @Label("Run")
+    String run;
+
+    @Label("Generation")
+    int generation;
+
+    @Label("Population Size")
+    int populationSize;
+}
+
+@Name("GeneticAlgorithm.Selection")
+@Label("Selection")
+@Description("Filling the mating pool")
+public static class Selection extends Phase {
+}
+
+@Name("GeneticAlgorithm.Mating")
+@Label("Mating")
+@Description("Crossing the mating pool over into offspring")
+public static class Mating extends Phase {
+}
+
+@Name("GeneticAlgorithm.Mutation")
+@Label("Mutation")
+@Description("Mutating the offspring")
+public static class Mutation extends Phase {
+}
+
+@Name("GeneticAlgorithm.Evaluation")
+@Label("Evaluation")
+@Description("Evaluating the fitness of a population's new members")
+public static class Evaluation extends Phase {
+}
+
+}
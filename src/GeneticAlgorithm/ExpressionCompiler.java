@@ -0,0 +1,567 @@
+package GeneticAlgorithm;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compiles fitness expressions into a generated JVM class with a plain
+ * double apply(double x) method, so the JIT can inline the expression into
+ * the fitness hot path. Supports the exp4j operators and builtin functions;
+ * anything else is rejected with an UnsupportedOperationException so that the
+ * caller can fall back to exp4j.
+ * @author Sage Ralph <SageJeanRalph@Gmail.com>
+ */
+public class ExpressionCompiler {
+
+private static final AtomicInteger classCount = new AtomicInteger();
+private static final List<String> FUNCTIONS = Arrays.asList(
+        "sin", "cos", "tan", "asin", "acos", "atan", "sinh", "cosh", "tanh",
+        "abs", "log", "log10", "log2", "log1p", "ceil", "floor", "sqrt",
+        "cbrt", "pow", "exp", "expm1");
+
+private final String expression;
+private int pos;
+
+private ExpressionCompiler(String expression) {
+    this.expression = expression;
+}
+
+/**
+ * Compiles expression, folding constant sub-expressions.
+ * @param expression The fitness expression, in terms of x
+ * @return The compiled expression
+ * @throws UnsupportedOperationException If the expression uses anything the
+ * compiler does not support
+ */
+public static CompiledExpression compile(String expression) {
+    ExpressionCompiler parser = new ExpressionCompiler(expression);
+    Node root = parser.parseExpression();
+    parser.skipWhitespace();
+    if (parser.pos < expression.length()) {
+        throw parser.unsupported();
+    }
+
+    String name = "GeneticAlgorithm/GeneratedExpression" + classCount.incrementAndGet();
+    byte[] bytes = new ClassWriter(name).write(fold(root));
+    try {
+        return (CompiledExpression) new Loader()
+                .define(name.replace('/', '.'), bytes)
+                .getDeclaredConstructor()
+                .newInstance();
+    } catch (ReflectiveOperationException | LinkageError e) {
+        throw new UnsupportedOperationException("Could not load compiled "
+                + "expression " + expression, e);
+    }
+}
+
+/**
+ * Division as performed by exp4j.
+ * @param a Dividend
+ * @param b Divisor
+ * @return a / b
+ */
+public static double divide(double a, double b) {
+    if (b == 0) {
+        throw new ArithmeticException("Division by zero!");
+    }
+    return a / b;
+}
+
+/**
+ * Modulo as performed by exp4j.
+ * @param a Dividend
+ * @param b Divisor
+ * @return a % b
+ */
+public static double modulo(double a, double b) {
+    if (b == 0) {
+        throw new ArithmeticException("Division by zero!");
+    }
+    return a % b;
+}
+
+/*
+ *******************************************************************************
+ * Parsing, using the same precedence as exp4j: + - < * / % < unary - < ^
+ * *****************************************************************************
+ */
+private Node parseExpression() {
+    Node node = parseTerm();
+    while (true) {
+        if (accept('+')) {
+            node = new Node('+', node, parseTerm());
+        } else if (accept('-')) {
+            node = new Node('-', node, parseTerm());
+        } else {
+            return node;
+        }
+    }
+}
+
+private Node parseTerm() {
+    Node node = parseUnary();
+    while (true) {
+        if (accept('*')) {
+            node = new Node('*', node, parseUnary());
+        } else if (accept('/')) {
+            node = new Node('/', node, parseUnary());
+        } else if (accept('%')) {
+            node = new Node('%', node, parseUnary());
+        } else {
+            return node;
+        }
+    }
+}
+
+private Node parseUnary() {
+    if (accept('-')) {
+        return new Node('n', parseUnary(), null);
+    }
+    if (accept('+')) {
+        return parseUnary();
+    }
+    return parsePower();
+}
+
+private Node parsePower() {
+    Node node = parsePrimary();
+    if (accept('^')) {
+        node = new Node('^', node, parsePower()); // Right associative
+    }
+    return node;
+}
+
+private Node parsePrimary() {
+    skipWhitespace();
+    if (pos >= expression.length()) {
+        throw unsupported();
+    }
+    char c = expression.charAt(pos);
+
+    if (accept('(')) {
+        Node node = parseExpression();
+        expect(')');
+        return node;
+    }
+
+    if (Character.isDigit(c) || c == '.') {
+        return Node.constant(parseNumber());
+    }
+
+    if (Character.isLetter(c) || c == '_') {
+        int start = pos;
+        while (pos < expression.length()
+                && (Character.isLetterOrDigit(expression.charAt(pos))
+                || expression.charAt(pos) == '_')) {
+            pos++;
+        }
+        String name = expression.substring(start, pos);
+
+        if (FUNCTIONS.contains(name) && accept('(')) {
+            Node node = new Node('f', parseExpression(), null);
+            node.function = name;
+            if (name.equals("pow")) {
+                expect(',');
+                node.b = parseExpression();
+            }
+            expect(')');
+            return node;
+        }
+        if (name.equals("x")) {
+            return new Node('x', null, null);
+        }
+    }
+    throw unsupported();
+}
+
+private double parseNumber() {
+    int start = pos;
+    while (pos < expression.length()
+            && (Character.isDigit(expression.charAt(pos))
+            || expression.charAt(pos) == '.')) {
+        pos++;
+    }
+    if (pos < expression.length()
+            && (expression.charAt(pos) == 'e' || expression.charAt(pos) == 'E')) {
+        pos++;
+        if (pos < expression.length()
+                && (expression.charAt(pos) == '+' || expression.charAt(pos) == '-')) {
+            pos++;
+        }
+        while (pos < expression.length() && Character.isDigit(expression.charAt(pos))) {
+            pos++;
+        }
+    }
+    try {
+        return Double.parseDouble(expression.substring(start, pos));
+    } catch (NumberFormatException e) {
+        throw unsupported();
+    }
+}
+
+private boolean accept(char c) {
+    skipWhitespace();
+    if (pos < expression.length() && expression.charAt(pos) == c) {
+        pos++;
+        return true;
+    }
+    return false;
+}
+
+private void expect(char c) {
+    if (!accept(c)) {
+        throw unsupported();
+    }
+}
+
+private void skipWhitespace() {
+    while (pos < expression.length()
+            && Character.isWhitespace(expression.charAt(pos))) {
+        pos++;
+    }
+}
+
+private UnsupportedOperationException unsupported() {
+    return new UnsupportedOperationException("Cannot compile " + expression
+            + " at position " + pos);
+}
+
+/*
+ *******************************************************************************
+ * Constant folding
+ * *****************************************************************************
+ */
+/**
+ * Replaces every sub-expression that does not depend on x with its value.
+ * Sub-expressions that would throw (such as division by zero) are left
+ * unfolded so that they still throw at evaluation time, as with exp4j.
+ */
+private static Node fold(Node node) {
+    if (node.a != null) {
+        node.a = fold(node.a);
+    }
+    if (node.b != null) {
+        node.b = fold(node.b);
+    }
+    if (node.op == 'c' || node.op == 'x'
+            || node.a.op != 'c' || (node.b != null && node.b.op != 'c')) {
+        return node;
+    }
+    try {
+        return Node.constant(evaluate(node));
+    } catch (ArithmeticException e) {
+        return node;
+    }
+}
+
+private static double evaluate(Node node) {
+    double a = node.a.value;
+    double b = node.b == null ? 0 : node.b.value;
+    switch (node.op) {
+        case '+': return a + b;
+        case '-': return a - b;
+        case '*': return a * b;
+        case '/': return divide(a, b);
+        case '%': return modulo(a, b);
+        case '^': return Math.pow(a, b);
+        case 'n': return -a;
+        default: return function(node.function, a, b);
+    }
+}
+
+private static double function(String name, double a, double b) {
+    switch (name) {
+        case "sin": return Math.sin(a);
+        case "cos": return Math.cos(a);
+        case "tan": return Math.tan(a);
+        case "asin": return Math.asin(a);
+        case "acos": return Math.acos(a);
+        case "atan": return Math.atan(a);
+        case "sinh": return Math.sinh(a);
+        case "cosh": return Math.cosh(a);
+        case "tanh": return Math.tanh(a);
+        case "abs": return Math.abs(a);
+        case "log": return Math.log(a);
+        case "log10": return Math.log10(a);
+        case "log2": return Math.log(a) / Math.log(2.0);
+        case "log1p": return Math.log1p(a);
+        case "ceil": return Math.ceil(a);
+        case "floor": return Math.floor(a);
+        case "sqrt": return Math.sqrt(a);
+        case "cbrt": return Math.cbrt(a);
+        case "pow": return Math.pow(a, b);
+        case "exp": return Math.exp(a);
+        case "expm1": return Math.expm1(a);
+        default: throw new UnsupportedOperationException(name);
+    }
+}
+
+/**
+ * A node of the parsed expression tree. op is one of + - * / % ^, 'n'
+ * (negation), 'f' (function call), 'c' (constant) or 'x' (the variable).
+ */
+private static class Node {
+
+    final char op;
+    Node a, b;
+    double value;
+    String function;
+
+    Node(char op, Node a, Node b) {
+        this.op = op;
+        this.a = a;
+        this.b = b;
+    }
+
+    static Node constant(double value) {
+        Node node = new Node('c', null, null);
+        node.value = value;
+        return node;
+    }
+}
+
+/*
+ *******************************************************************************
+ * Class generation
+ * *****************************************************************************
+ */
+/**
+ * Writes a minimal class file (Java 8 format) implementing CompiledExpression.
+ * The generated code is straight-line, so no stack map frames are needed.
+ */
+private static class ClassWriter {
+
+    private static final String MATH = "java/lang/Math";
+    private static final String SELF = "GeneticAlgorithm/ExpressionCompiler";
+
+    private final String name;
+    private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+    private final DataOutputStream poolOut = new DataOutputStream(pool);
+    private final Map<String, Integer> poolIndex = new HashMap<>();
+    private int poolSize = 1;
+
+    private final ByteArrayOutputStream code = new ByteArrayOutputStream();
+    private int stack, maxStack;
+
+    ClassWriter(String name) {
+        this.name = name;
+    }
+
+    byte[] write(Node root) {
+        try {
+            // Constructor: super();
+            int objectInit = methodRef("java/lang/Object", "<init>", "()V");
+            byte[] init = {0x2a, (byte) 0xb7,
+                (byte) (objectInit >> 8), (byte) objectInit, (byte) 0xb1};
+
+            // apply(x)
+            emit(root);
+            code.write(0xaf); // dreturn
+            byte[] apply = code.toByteArray();
+
+            int thisClass = classRef(name);
+            int superClass = classRef("java/lang/Object");
+            int iface = classRef("GeneticAlgorithm/CompiledExpression");
+            int codeName = utf8("Code");
+            int initName = utf8("<init>");
+            int initDesc = utf8("()V");
+            int applyName = utf8("apply");
+            int applyDesc = utf8("(D)D");
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(52);
+            out.writeShort(poolSize);
+            out.write(pool.toByteArray());
+            out.writeShort(0x0001 | 0x0010 | 0x0020); // public final super
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(1);
+            out.writeShort(iface);
+            out.writeShort(0); // fields
+            out.writeShort(2); // methods
+            writeMethod(out, initName, initDesc, codeName, 1, 1, init);
+            writeMethod(out, applyName, applyDesc, codeName, maxStack, 3, apply);
+            out.writeShort(0); // attributes
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void writeMethod(DataOutputStream out, int name, int desc,
+            int codeName, int maxStack, int maxLocals, byte[] code)
+            throws IOException {
+        out.writeShort(0x0001); // public
+        out.writeShort(name);
+        out.writeShort(desc);
+        out.writeShort(1);
+        out.writeShort(codeName);
+        out.writeInt(12 + code.length);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+        out.writeShort(0); // exception table
+        out.writeShort(0); // attributes
+    }
+
+    /**
+     * Emits code leaving the value of node on the operand stack.
+     */
+    private void emit(Node node) throws IOException {
+        switch (node.op) {
+            case 'c':
+                push(node.value);
+                return;
+            case 'x':
+                code.write(0x27); // dload_1
+                grow(2);
+                return;
+            case 'n':
+                emit(node.a);
+                code.write(0x77); // dneg
+                return;
+            case 'f':
+                emit(node.a);
+                if (node.b != null) {
+                    emit(node.b);
+                    invoke(MATH, node.function, "(DD)D");
+                    grow(-2);
+                } else if (node.function.equals("log2")) {
+                    invoke(MATH, "log", "(D)D");
+                    push(Math.log(2.0));
+                    code.write(0x6f); // ddiv
+                    grow(-2);
+                } else {
+                    invoke(MATH, node.function, "(D)D");
+                }
+                return;
+            default:
+                emit(node.a);
+                emit(node.b);
+                switch (node.op) {
+                    case '+': code.write(0x63); break; // dadd
+                    case '-': code.write(0x67); break; // dsub
+                    case '*': code.write(0x6b); break; // dmul
+                    case '/': invoke(SELF, "divide", "(DD)D"); break;
+                    case '%': invoke(SELF, "modulo", "(DD)D"); break;
+                    default: invoke(MATH, "pow", "(DD)D"); break;
+                }
+                grow(-2);
+        }
+    }
+
+    private void push(double value) throws IOException {
+        if (Double.doubleToRawLongBits(value) == 0L) {
+            code.write(0x0e); // dconst_0
+        } else if (value == 1.0) {
+            code.write(0x0f); // dconst_1
+        } else {
+            int index = doubleConstant(value);
+            code.write(0x14); // ldc2_w
+            code.write(index >> 8);
+            code.write(index);
+        }
+        grow(2);
+    }
+
+    private void invoke(String owner, String method, String descriptor)
+            throws IOException {
+        int index = methodRef(owner, method, descriptor);
+        code.write(0xb8); // invokestatic
+        code.write(index >> 8);
+        code.write(index);
+    }
+
+    private void grow(int slots) {
+        stack += slots;
+        maxStack = Math.max(maxStack, stack);
+    }
+
+    /*
+     * Constant pool entries, deduplicated by their content.
+     */
+    private int utf8(String value) throws IOException {
+        Integer index = poolIndex.get("U" + value);
+        if (index == null) {
+            poolOut.writeByte(1);
+            poolOut.writeUTF(value);
+            index = add("U" + value, 1);
+        }
+        return index;
+    }
+
+    private int classRef(String className) throws IOException {
+        Integer index = poolIndex.get("C" + className);
+        if (index == null) {
+            int nameIndex = utf8(className);
+            poolOut.writeByte(7);
+            poolOut.writeShort(nameIndex);
+            index = add("C" + className, 1);
+        }
+        return index;
+    }
+
+    private int methodRef(String owner, String method, String descriptor)
+            throws IOException {
+        String key = "M" + owner + "." + method + descriptor;
+        Integer index = poolIndex.get(key);
+        if (index == null) {
+            int ownerIndex = classRef(owner);
+            int nameIndex = utf8(method);
+            int descIndex = utf8(descriptor);
+            poolOut.writeByte(12);
+            poolOut.writeShort(nameIndex);
+            poolOut.writeShort(descIndex);
+            int nameAndType = add("N" + key, 1);
+            poolOut.writeByte(10);
+            poolOut.writeShort(ownerIndex);
+            poolOut.writeShort(nameAndType);
+            index = add(key, 1);
+        }
+        return index;
+    }
+
+    private int doubleConstant(double value) throws IOException {
+        String key = "D" + Double.doubleToRawLongBits(value);
+        Integer index = poolIndex.get(key);
+        if (index == null) {
+            poolOut.writeByte(6);
+            poolOut.writeDouble(value);
+            index = add(key, 2); // Doubles take two pool slots
+        }
+        return index;
+    }
+
+    private int add(String key, int slots) {
+        int index = poolSize;
+        poolIndex.put(key, index);
+        poolSize += slots;
+        return index;
+    }
+}
+
+/**
+ * Defines each generated class in its own loader, so it can be unloaded once
+ * the batch that compiled it is finished.
+ */
+private static class Loader extends ClassLoader {
+
+    Loader() {
+        super(ExpressionCompiler.class.getClassLoader());
+    }
+
+    Class<?> define(String className, byte[] bytes) {
+        return defineClass(className, bytes, 0, bytes.length);
+    }
+}
+
+}
@@ -0,0 +1,157 @@
+package GeneticAlgorithm;
+import java.util.BitSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Memoises a FitnessFunction over the integer values of a range, shared by
+ * every run and worker thread of a batch. Small ranges are evaluated up front,
+ * in parallel, into a dense table. Values the function cannot be evaluated at
+ * are recorded as failed and evaluated again if looked up, so the error only
+ * surfaces if such a value is ever used; values the function evaluates to NaN
+ * are cached like any other. Larger ranges use a bounded direct-mapped
+ * cache, where a new value simply evicts whichever value shared its slot.
+ *
+ * Lookups of a dense table are too cheap to count on a shared counter; runs
+ * count their own and report them with recordLookups() when they finish.
+ * @author Sage Ralph <SageJeanRalph@Gmail.com>
+ */
+public class FitnessCache {
+
+// Largest range evaluated up front, and the number of slots otherwise
+private static final int DENSE_LIMIT = 1 << 16;
+private static final int CACHE_SLOTS = 1 << 16;
+
+private final FitnessFunction function;
+private final long min;
+private final double[] table;
+private final BitSet failed; // Indexes of table the function threw at
+private final Entry[] slots;
+private final LongAdder hits = new LongAdder();
+private final LongAdder misses = new LongAdder();
+
+/**
+ * @param function The fitness function to memoise
+ * @param min The lowest value that will be looked up
+ * @param max The highest value that will be looked up
+ */
+public FitnessCache(FitnessFunction function, int min, int max) {
+    this.function = function;
+    this.min = min;
+
+    long size = (long) max - min + 1;
+    if (size <= DENSE_LIMIT) {
+        table = new double[(int) size];
+        failed = new BitSet();
+        slots = null;
+        IntStream.range(0, table.length).parallel().forEach(i -> {
+            try {
+                table[i] = function.evaluate(min + i);
+            } catch (ArithmeticException e) {
+                table[i] = Double.NaN;
+                synchronized (failed) {
+                    failed.set(i);
+                }
+            }
+        });
+    } else {
+        table = null;
+        failed = null;
+        slots = new Entry[CACHE_SLOTS];
+    }
+}
+
+/**
+ * @param value A value within the range
+ * @return The fitness of value
+ * @throws ArithmeticException If the function cannot be evaluated at value
+ */
+public double fitness(int value) {
+    if (table != null) {
+        int index = (int) (value - min);
+        double fitness = table[index];
+
+        // A failed value is only evaluated again, rethrowing its error, if
+        // looked up; failed values are NaN, so others skip the BitSet
+        return fitness == fitness || !failed.get(index) ? fitness
+                : function.evaluate(value);
+    }
+
+    // Racy reads are safe as Entries are immutable; a stale read is a miss
+    int slot = (value * 0x9E3779B9) >>> 16 & (CACHE_SLOTS - 1);
+    Entry entry = slots[slot];
+    if (entry != null && entry.value == value) {
+        hits.increment();
+        return entry.fitness;
+    }
+
+    misses.increment();
+    double fitness = function.evaluate(value);
+    slots[slot] = new Entry(value, fitness);
+    return fitness;
+}
+
+/**
+ * Counts lookups a run made of a dense table. Lookups of a bounded cache are
+ * counted as they happen, so are not counted again.
+ * @param count The number of values the run looked up
+ */
+public void recordLookups(long count) {
+    if (table != null) {
+        hits.add(count);
+    }
+}
+
+/**
+ * @return The number of values looked up so far, whether or not they were
+ * already cached; lookups of a dense table are only counted once their run
+ * has finished
+ */
+public long lookups() {
+    return hits.sum() + misses.sum();
+}
+
+/**
+ * @return The number of lookups answered without evaluating the function
+ */
+public long hits() {
+    return hits.sum();
+}
+
+/**
+ * @return The number of lookups that evaluated the function
+ */
+public long misses() {
+    return misses.sum();
+}
+
+/**
+ * @return A description of the cache and its hit rate
+ */
+public String describe() {
+    long hitCount = hits.sum();
+    if (table != null) {
+        return "dense table of " + table.length + " values, "
+                + hitCount + " lookups";
+    }
+
+    long missCount = misses.sum();
+    long lookups = hitCount + missCount;
+    String rate = lookups == 0 ? "-"
+            : String.format("%.1f%%", 100.0 * hitCount / lookups);
+    return CACHE_SLOTS + " slot cache, " + hitCount + " hits, "
+            + missCount + " misses (" + rate + " hit rate)";
+}
+
+private static final class Entry {
+
+    final int value;
+    final double fitness;
+
+    Entry(int value, double fitness) {
+        this.value = value;
+        this.fitness = fitness;
+    }
+}
+
+}
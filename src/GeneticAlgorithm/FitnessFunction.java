@@ -0,0 +1,116 @@
+package GeneticAlgorithm;
+import java.util.concurrent.atomic.LongAdder;
+import net.objecthunter.exp4j.Expression;
+import net.objecthunter.exp4j.ExpressionBuilder;
+import net.objecthunter.exp4j.ValidationResult;
+
+/**
+ * A user supplied fitness expression, parsed and validated once per batch.
+ * When possible the expression is compiled to bytecode by ExpressionCompiler,
+ * otherwise it is evaluated by exp4j. exp4j Expressions are not thread-safe,
+ * so each worker thread lazily receives its own copy of the parsed expression.
+ * @author Sage Ralph <SageJeanRalph@Gmail.com>
+ */
+public class FitnessFunction {
+
+// Points at which a compiled expression must agree with exp4j to be used
+private static final double[] CHECK_POINTS = {
+    -100, -10, -2.5, -1, 0, 0.5, 1, 2, 3, 7, 10, 64, 1000, 65536};
+
+private final String expression;
+private final double offset;
+private final ThreadLocal<Expression> evaluators;
+private final CompiledExpression compiled;
+private final LongAdder evaluations = new LongAdder();
+
+/**
+ * Parses and validates expression.
+ * @param expression The fitness expression, in terms of x
+ * @param offset Added to every result (the known minimum)
+ * @param compile Whether to try compiling the expression to bytecode
+ * @throws IllegalArgumentException If the expression is invalid
+ */
+public FitnessFunction(String expression, double offset, boolean compile) {
+    this.expression = expression;
+    this.offset = offset;
+
+    ValidationResult result = build().setVariable("x", 0).validate();
+    if (!result.isValid()) {
+        throw new IllegalArgumentException("Invalid fitness function "
+                + expression + ": " + result.getErrors());
+    }
+
+    evaluators = ThreadLocal.withInitial(this::build);
+    compiled = compile ? compile() : null;
+}
+
+/**
+ * Compiles the expression, checking the result against exp4j.
+ * @return The compiled expression, or null if it is unsupported
+ */
+private CompiledExpression compile() {
+    CompiledExpression candidate;
+    try {
+        candidate = ExpressionCompiler.compile(expression);
+    } catch (UnsupportedOperationException e) {
+        return null;
+    }
+
+    Expression reference = build();
+    for (double x : CHECK_POINTS) {
+        double expected, actual;
+        try {
+            expected = reference.setVariable("x", x).evaluate();
+        } catch (ArithmeticException e) {
+            expected = Double.NaN;
+        }
+        try {
+            actual = candidate.apply(x);
+        } catch (ArithmeticException e) {
+            actual = Double.NaN;
+        }
+        if (Double.compare(expected, actual) != 0) {
+            return null;
+        }
+    }
+    return candidate;
+}
+
+private Expression build() {
+    return new ExpressionBuilder(expression)
+            .variables("x")
+            .build();
+}
+
+/**
+ * @param x The raw value indicated by the chromosome
+ * @return The fitness of x
+ */
+public double evaluate(double x) {
+    evaluations.increment();
+    if (compiled != null) {
+        return compiled.apply(x) + offset;
+    }
+    return evaluators.get().setVariable("x", x).evaluate() + offset;
+}
+
+/**
+ * @return Whether the expression is evaluated by compiled bytecode
+ */
+public boolean isCompiled() {
+    return compiled != null;
+}
+
+/**
+ * @return The number of evaluations performed so far
+ */
+public long evaluations() {
+    return evaluations.sum();
+}
+
+@Override
+public String toString() {
+    return expression;
+}
+
+}
@@ -4,9 +4,12 @@
  * and open the template in the editor.
  */
 package GeneticAlgorithm;
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
 
 /**
  *
@@ -14,23 +17,76 @@ import javax.swing.SwingConstants;
  */
 public class GUI extends javax.swing.JFrame {
 
-private static javax.swing.JTextArea output;
+private static LogViewer output;
 private static final long serialVersionUID = 1L;
+
+// Output waiting to be shown, flushed to the log viewer once a frame
+private static final StringBuilder pending = new StringBuilder();
+private static final int FRAME_MS = 40;
+private static final int PENDING_LIMIT = 1 << 20; // Characters
+
+private SwingWorker<Void, Void> runner;
+
 /**
  * Creates new form GUI
  */
 public GUI() {
     initComponents();
-    output = tbOutput;
+    output = logViewer;
+    Main.setOutput(GUI::output);
     inMutationChance.setHorizontalAlignment(SwingConstants.RIGHT);
-    
+    new Timer(FRAME_MS, evt -> flushOutput()).start();
 }
 
+/**
+ * Queues text to be appended to the log viewer, or prints it to standard
+ * output if the viewer has not been created yet. May be called from any
+ * thread. Text is appended at most once a frame, however often this is
+ * called; if the viewer falls too far behind, callers other than the
+ * Event Dispatch Thread wait for it to catch up.
+ * @param text
+ */
 public static void output(String text) {
+    if (output == null) {
+        System.out.print(text);
+        return;
+    }
+    synchronized (pending) {
+        while (pending.length() > PENDING_LIMIT
+                && !SwingUtilities.isEventDispatchThread()) {
+            try {
+                pending.wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        pending.append(text);
+    }
+}
+
+/**
+ * Appends everything queued by output() to the log viewer. Called on the
+ * Event Dispatch Thread each frame.
+ */
+private static void flushOutput() {
+    String text;
+    synchronized (pending) {
+        if (pending.length() == 0) {
+            return;
+        }
+        text = pending.toString();
+        pending.setLength(0);
+        pending.notifyAll();
+    }
     output.append(text);
 }
 
-public void run() throws InterruptedException {
+/**
+ * Reads the settings from the form and starts the simulations in the
+ * background. Called on the Event Dispatch Thread.
+ */
+public void run() {
     try {
         if (validInputs()) {
             // Set params
@@ -39,11 +95,20 @@ public void run() throws InterruptedException {
             Main.populationSize = (int) inPopSize.getValue();
             Main.runCount = (int) inRunCount.getValue();
             Main.threadCount = (int) inThreadCount.getValue();
+            Main.scheduler = (Scheduler) inScheduler.getSelectedItem();
+            Main.evaluationThreshold = (int) inEvaluationThreshold.getValue();
             Main.rangeMin = (int) inRangeMin.getValue();
             Main.rangeMax = (int) inRangeMax.getValue();
             Main.mutationChance = Double.parseDouble(inMutationChance.getText());
             Main.sigmaScaling = cbSigmaScaling.isSelected();
+            SelectionMethod selection = (SelectionMethod) inSelection.getSelectedItem();
+            Main.selection = selection;
+            Main.selectionParameter = selection.hasParameter()
+                    ? Double.parseDouble(inSelectionParameter.getText()) : Double.NaN;
+            Main.seed = inSeed.getText().trim().isEmpty() // Random if blank
+                    ? null : Long.valueOf(inSeed.getText().trim());
             Main.fitnessFunction = tbFitnessFunction.getText();
+            Main.compileFitness = cbCompileFitness.isSelected();
             Main.genDetail = cbGenDetail.isSelected();
             Main.genSummary = cbGenSummary.isSelected();
             Main.runSummary = cbRunSummary.isSelected();
@@ -52,14 +117,70 @@ public void run() throws InterruptedException {
             Main.knownMin = cbKnownMin.isSelected() // 0 if unchecked
                     ? Double.parseDouble(inMin.getText()) : 0;
 
+            Main.sweep = inSweep.getText();
+            Main.islands = inIslands.getText();
+            Main.logFile = inLogFile.getText();
+            Main.logPolicy = cbDropLog.isSelected()
+                    ? LogSink.Policy.DROP : LogSink.Policy.BLOCK;
+
             // Run
-            Main.simulate();
+            boolean sweep = cbSweep.isSelected();
+            boolean islands = cbIslands.isSelected();
+            runner = new SwingWorker<Void, Void>() {
+                @Override
+                protected Void doInBackground() throws InterruptedException {
+                    if (sweep) {
+                        Main.sweep();
+                    } else if (islands) {
+                        Main.islands();
+                    } else {
+                        Main.simulate();
+                    }
+                    return null;
+                }
+
+                @Override
+                protected void done() {
+                    finished(this);
+                }
+            };
+            btnRun.setEnabled(false);
+            btnCancel.setEnabled(true);
+            runner.execute();
         }
+    } catch (IllegalArgumentException e) {
+        output(e.getMessage() + "\n");
     } catch (Error e) {
         output("Invalid inputs");
     }
 }
 
+/**
+ * Reports how a background run ended and re-enables the form. Called on the
+ * Event Dispatch Thread.
+ * @param finished The run that ended
+ */
+private void finished(SwingWorker<Void, Void> finished) {
+    try {
+        finished.get();
+    } catch (ExecutionException e) {
+        if (e.getCause() instanceof IllegalArgumentException) {
+            output(e.getCause().getMessage() + "\n");
+        } else if (e.getCause() instanceof InterruptedException) {
+            output("Simulations cancelled\n\n");
+        } else {
+            output("Simulations failed: " + e.getCause() + "\n");
+        }
+    } catch (InterruptedException | CancellationException e) {
+        // Not thrown once a SwingWorker is done, unless it was cancelled
+    }
+    if (runner == finished) {
+        runner = null;
+        btnRun.setEnabled(true);
+        btnCancel.setEnabled(false);
+    }
+}
+
 private boolean validInputs() {
     return true;
 }
@@ -89,6 +210,7 @@ private boolean validInputs() {
         jLabel5 = new javax.swing.JLabel();
         inMutationChance = new javax.swing.JTextField();
         btnRun = new javax.swing.JButton();
+        btnCancel = new javax.swing.JButton();
         jLabel3 = new javax.swing.JLabel();
         inPopSize = new javax.swing.JSpinner();
         btnClear = new javax.swing.JButton();
@@ -104,8 +226,25 @@ private boolean validInputs() {
         cbKnownMin = new javax.swing.JCheckBox();
         inMax = new javax.swing.JTextField();
         inMin = new javax.swing.JTextField();
-        jScrollPane1 = new javax.swing.JScrollPane();
-        tbOutput = new javax.swing.JTextArea();
+        cbCompileFitness = new javax.swing.JCheckBox();
+        jLabel12 = new javax.swing.JLabel();
+        inSelection = new javax.swing.JComboBox<>();
+        jLabel13 = new javax.swing.JLabel();
+        inSelectionParameter = new javax.swing.JTextField();
+        jLabel14 = new javax.swing.JLabel();
+        inSeed = new javax.swing.JTextField();
+        cbSweep = new javax.swing.JCheckBox();
+        inSweep = new javax.swing.JTextField();
+        cbIslands = new javax.swing.JCheckBox();
+        inIslands = new javax.swing.JTextField();
+        jLabel15 = new javax.swing.JLabel();
+        inScheduler = new javax.swing.JComboBox<>();
+        jLabel16 = new javax.swing.JLabel();
+        inEvaluationThreshold = new javax.swing.JSpinner();
+        jLabel17 = new javax.swing.JLabel();
+        inLogFile = new javax.swing.JTextField();
+        cbDropLog = new javax.swing.JCheckBox();
+        logViewer = new GeneticAlgorithm.LogViewer();
 
         setDefaultCloseOperation(javax.swing.WindowConstants.EXIT_ON_CLOSE);
 
@@ -145,6 +284,14 @@ private boolean validInputs() {
             }
         });
 
+        btnCancel.setText("Cancel");
+        btnCancel.setEnabled(false);
+        btnCancel.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                btnCancelActionPerformed(evt);
+            }
+        });
+
         jLabel3.setText("Population Size");
 
         inPopSize.setValue(10);
@@ -195,6 +342,56 @@ private boolean validInputs() {
         inMin.setText("0");
         inMin.setEnabled(false);
 
+        cbCompileFitness.setSelected(true);
+        cbCompileFitness.setText("Compile fitness function");
+
+        jLabel12.setText("Selection");
+
+        inSelection.setModel(new javax.swing.DefaultComboBoxModel<>(SelectionMethod.values()));
+        inSelection.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                inSelectionActionPerformed(evt);
+            }
+        });
+
+        jLabel13.setText("Selection parameter");
+
+        inSelectionParameter.setEnabled(false);
+
+        jLabel14.setText("Seed (blank for random)");
+
+        cbSweep.setText("Parameter sweep");
+        cbSweep.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                cbSweepActionPerformed(evt);
+            }
+        });
+
+        inSweep.setText("pop=10,20,40; elitism=0,1,2; mutation=0.001,0.01; sigma=false,true; sample=grid");
+        inSweep.setEnabled(false);
+
+        cbIslands.setText("Island model");
+        cbIslands.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                cbIslandsActionPerformed(evt);
+            }
+        });
+
+        inIslands.setText("islands=4; interval=10; migrants=1; topology=ring");
+        inIslands.setEnabled(false);
+
+        jLabel15.setText("Scheduler");
+
+        inScheduler.setModel(new javax.swing.DefaultComboBoxModel<>(Scheduler.values()));
+
+        jLabel16.setText("Parallel evaluation above");
+
+        inEvaluationThreshold.setModel(new javax.swing.SpinnerNumberModel(1024, 1, null, 1));
+
+        jLabel17.setText("Log file (blank for this window)");
+
+        cbDropLog.setText("Drop log output rather than wait");
+
         javax.swing.GroupLayout jPanel1Layout = new javax.swing.GroupLayout(jPanel1);
         jPanel1.setLayout(jPanel1Layout);
         jPanel1Layout.setHorizontalGroup(
@@ -203,12 +400,21 @@ private boolean validInputs() {
                 .addContainerGap()
                 .addGroup(jPanel1Layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
                     .addComponent(btnRun, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                    .addComponent(btnCancel, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
                     .addComponent(btnClear, javax.swing.GroupLayout.Alignment.TRAILING, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
                     .addGroup(javax.swing.GroupLayout.Alignment.TRAILING, jPanel1Layout.createSequentialGroup()
                         .addGap(0, 1, Short.MAX_VALUE)
                         .addComponent(jLabel11)
                         .addGap(42, 42, 42)
                         .addComponent(inThreadCount, javax.swing.GroupLayout.PREFERRED_SIZE, 160, javax.swing.GroupLayout.PREFERRED_SIZE))
+                    .addGroup(javax.swing.GroupLayout.Alignment.TRAILING, jPanel1Layout.createSequentialGroup()
+                        .addComponent(jLabel15)
+                        .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                        .addComponent(inScheduler, javax.swing.GroupLayout.PREFERRED_SIZE, 160, javax.swing.GroupLayout.PREFERRED_SIZE))
+                    .addGroup(javax.swing.GroupLayout.Alignment.TRAILING, jPanel1Layout.createSequentialGroup()
+                        .addComponent(jLabel16)
+                        .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                        .addComponent(inEvaluationThreshold, javax.swing.GroupLayout.PREFERRED_SIZE, 160, javax.swing.GroupLayout.PREFERRED_SIZE))
                     .addGroup(javax.swing.GroupLayout.Alignment.TRAILING, jPanel1Layout.createSequentialGroup()
                         .addGroup(jPanel1Layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
                             .addComponent(jLabel4)
@@ -223,7 +429,33 @@ private boolean validInputs() {
                             .addComponent(inElitism, javax.swing.GroupLayout.Alignment.TRAILING)
                             .addComponent(inMutationChance, javax.swing.GroupLayout.Alignment.TRAILING)
                             .addComponent(inRunCount, javax.swing.GroupLayout.PREFERRED_SIZE, 160, javax.swing.GroupLayout.PREFERRED_SIZE)))
+                    .addGroup(javax.swing.GroupLayout.Alignment.TRAILING, jPanel1Layout.createSequentialGroup()
+                        .addComponent(jLabel12)
+                        .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                        .addComponent(inSelection, javax.swing.GroupLayout.PREFERRED_SIZE, 160, javax.swing.GroupLayout.PREFERRED_SIZE))
+                    .addGroup(javax.swing.GroupLayout.Alignment.TRAILING, jPanel1Layout.createSequentialGroup()
+                        .addComponent(jLabel13)
+                        .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                        .addComponent(inSelectionParameter, javax.swing.GroupLayout.PREFERRED_SIZE, 160, javax.swing.GroupLayout.PREFERRED_SIZE))
+                    .addGroup(javax.swing.GroupLayout.Alignment.TRAILING, jPanel1Layout.createSequentialGroup()
+                        .addComponent(jLabel14)
+                        .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                        .addComponent(inSeed, javax.swing.GroupLayout.PREFERRED_SIZE, 160, javax.swing.GroupLayout.PREFERRED_SIZE))
+                    .addGroup(jPanel1Layout.createSequentialGroup()
+                        .addComponent(cbSweep)
+                        .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                        .addComponent(inSweep, javax.swing.GroupLayout.DEFAULT_SIZE, 160, Short.MAX_VALUE))
+                    .addGroup(jPanel1Layout.createSequentialGroup()
+                        .addComponent(cbIslands)
+                        .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                        .addComponent(inIslands, javax.swing.GroupLayout.DEFAULT_SIZE, 160, Short.MAX_VALUE))
+                    .addGroup(javax.swing.GroupLayout.Alignment.TRAILING, jPanel1Layout.createSequentialGroup()
+                        .addComponent(jLabel17)
+                        .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                        .addComponent(inLogFile, javax.swing.GroupLayout.PREFERRED_SIZE, 160, javax.swing.GroupLayout.PREFERRED_SIZE))
+                    .addComponent(cbDropLog)
                     .addComponent(tbFitnessFunction)
+                    .addComponent(cbCompileFitness)
                     .addGroup(jPanel1Layout.createSequentialGroup()
                         .addGroup(jPanel1Layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
                             .addComponent(jLabel1)
@@ -263,6 +495,14 @@ private boolean validInputs() {
                     .addComponent(inThreadCount, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
                     .addComponent(jLabel11))
                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addGroup(jPanel1Layout.createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
+                    .addComponent(jLabel15)
+                    .addComponent(inScheduler, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE))
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addGroup(jPanel1Layout.createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
+                    .addComponent(jLabel16)
+                    .addComponent(inEvaluationThreshold, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE))
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
                 .addGroup(jPanel1Layout.createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
                     .addComponent(inRunCount, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
                     .addComponent(jLabel2))
@@ -292,10 +532,38 @@ private boolean validInputs() {
                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
                 .addComponent(cbSigmaScaling)
                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addGroup(jPanel1Layout.createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
+                    .addComponent(jLabel12)
+                    .addComponent(inSelection, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE))
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addGroup(jPanel1Layout.createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
+                    .addComponent(jLabel13)
+                    .addComponent(inSelectionParameter, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE))
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addGroup(jPanel1Layout.createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
+                    .addComponent(jLabel14)
+                    .addComponent(inSeed, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE))
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addGroup(jPanel1Layout.createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
+                    .addComponent(cbSweep)
+                    .addComponent(inSweep, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE))
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addGroup(jPanel1Layout.createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
+                    .addComponent(cbIslands)
+                    .addComponent(inIslands, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE))
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addGroup(jPanel1Layout.createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
+                    .addComponent(jLabel17)
+                    .addComponent(inLogFile, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE))
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(cbDropLog)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
                 .addComponent(jLabel10)
                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
                 .addComponent(tbFitnessFunction, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(cbCompileFitness)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
                 .addGroup(jPanel1Layout.createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
                     .addComponent(cbKnownMax)
                     .addComponent(inMax, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE))
@@ -312,15 +580,12 @@ private boolean validInputs() {
                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
                 .addComponent(btnRun)
                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(btnCancel)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
                 .addComponent(btnClear)
                 .addContainerGap())
         );
 
-        tbOutput.setEditable(false);
-        tbOutput.setColumns(20);
-        tbOutput.setRows(5);
-        jScrollPane1.setViewportView(tbOutput);
-
         javax.swing.GroupLayout layout = new javax.swing.GroupLayout(getContentPane());
         getContentPane().setLayout(layout);
         layout.setHorizontalGroup(
@@ -328,29 +593,33 @@ private boolean validInputs() {
             .addGroup(layout.createSequentialGroup()
                 .addComponent(jPanel1, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
-                .addComponent(jScrollPane1, javax.swing.GroupLayout.DEFAULT_SIZE, 507, Short.MAX_VALUE))
+                .addComponent(logViewer, javax.swing.GroupLayout.DEFAULT_SIZE, 507, Short.MAX_VALUE))
         );
         layout.setVerticalGroup(
             layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
             .addComponent(jPanel1, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
-            .addComponent(jScrollPane1)
+            .addComponent(logViewer, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
         );
 
         pack();
     }// </editor-fold>//GEN-END:initComponents
 
     private void btnRunActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_btnRunActionPerformed
-        try {
-            run();
-        } catch (InterruptedException ex) {
-            Logger.getLogger(GUI.class.getName()).log(Level.SEVERE, null, ex);
-        }
+        run();
     }//GEN-LAST:event_btnRunActionPerformed
 
     private void btnClearActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_btnClearActionPerformed
-        output.setText("");
+        synchronized (pending) {
+            pending.setLength(0);
+            pending.notifyAll();
+        }
+        output.clear();
     }//GEN-LAST:event_btnClearActionPerformed
 
+    private void btnCancelActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_btnCancelActionPerformed
+        Main.cancel();
+    }//GEN-LAST:event_btnCancelActionPerformed
+
     private void cbKnownMaxActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_cbKnownMaxActionPerformed
         inMax.setEnabled(cbKnownMax.isSelected());
     }//GEN-LAST:event_cbKnownMaxActionPerformed
@@ -359,6 +628,32 @@ private boolean validInputs() {
         inMin.setEnabled(cbKnownMin.isSelected());
     }//GEN-LAST:event_cbKnownMinActionPerformed
 
+    private void inSelectionActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_inSelectionActionPerformed
+        SelectionMethod selection = (SelectionMethod) inSelection.getSelectedItem();
+        double parameter = selection.defaultParameter();
+        inSelectionParameter.setEnabled(selection.hasParameter());
+        inSelectionParameter.setText(!selection.hasParameter() ? ""
+                : parameter == Math.rint(parameter) ? Long.toString((long) parameter)
+                : Double.toString(parameter));
+    }//GEN-LAST:event_inSelectionActionPerformed
+
+    private void cbSweepActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_cbSweepActionPerformed
+        // A sweep and an island model can't be run together
+        if (cbSweep.isSelected()) {
+            cbIslands.setSelected(false);
+            inIslands.setEnabled(false);
+        }
+        inSweep.setEnabled(cbSweep.isSelected());
+    }//GEN-LAST:event_cbSweepActionPerformed
+
+    private void cbIslandsActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_cbIslandsActionPerformed
+        if (cbIslands.isSelected()) {
+            cbSweep.setSelected(false);
+            inSweep.setEnabled(false);
+        }
+        inIslands.setEnabled(cbIslands.isSelected());
+    }//GEN-LAST:event_cbIslandsActionPerformed
+
 /**
  * @param args the command line arguments
  */
@@ -395,15 +690,23 @@ public static void main(String args[]) {
 }
 
     // Variables declaration - do not modify//GEN-BEGIN:variables
+    private javax.swing.JButton btnCancel;
     private javax.swing.JButton btnClear;
     private javax.swing.JButton btnRun;
+    private javax.swing.JCheckBox cbCompileFitness;
+    private javax.swing.JCheckBox cbDropLog;
     private javax.swing.JCheckBox cbGenDetail;
     private javax.swing.JCheckBox cbGenSummary;
+    private javax.swing.JCheckBox cbIslands;
     private javax.swing.JCheckBox cbKnownMax;
     private javax.swing.JCheckBox cbKnownMin;
     private javax.swing.JCheckBox cbRunSummary;
     private javax.swing.JCheckBox cbSigmaScaling;
+    private javax.swing.JCheckBox cbSweep;
     private javax.swing.JSpinner inElitism;
+    private javax.swing.JSpinner inEvaluationThreshold;
+    private javax.swing.JTextField inIslands;
+    private javax.swing.JTextField inLogFile;
     private javax.swing.JTextField inMax;
     private javax.swing.JSpinner inMaxGen;
     private javax.swing.JTextField inMin;
@@ -412,10 +715,21 @@ public static void main(String args[]) {
     private javax.swing.JSpinner inRangeMax;
     private javax.swing.JSpinner inRangeMin;
     private javax.swing.JSpinner inRunCount;
+    private javax.swing.JComboBox<Scheduler> inScheduler;
+    private javax.swing.JTextField inSeed;
+    private javax.swing.JTextField inSweep;
+    private javax.swing.JComboBox<SelectionMethod> inSelection;
+    private javax.swing.JTextField inSelectionParameter;
     private javax.swing.JSpinner inThreadCount;
     private javax.swing.JLabel jLabel1;
     private javax.swing.JLabel jLabel10;
     private javax.swing.JLabel jLabel11;
+    private javax.swing.JLabel jLabel12;
+    private javax.swing.JLabel jLabel13;
+    private javax.swing.JLabel jLabel14;
+    private javax.swing.JLabel jLabel15;
+    private javax.swing.JLabel jLabel16;
+    private javax.swing.JLabel jLabel17;
     private javax.swing.JLabel jLabel2;
     private javax.swing.JLabel jLabel3;
     private javax.swing.JLabel jLabel4;
@@ -425,8 +739,7 @@ public static void main(String args[]) {
     private javax.swing.JLabel jLabel8;
     private javax.swing.JLabel jLabel9;
     private javax.swing.JPanel jPanel1;
-    private javax.swing.JScrollPane jScrollPane1;
+    private GeneticAlgorithm.LogViewer logViewer;
     private javax.swing.JTextField tbFitnessFunction;
-    private javax.swing.JTextArea tbOutput;
     // End of variables declaration//GEN-END:variables
 }
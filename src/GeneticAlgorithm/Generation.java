@@ -1,44 +1,117 @@
 package GeneticAlgorithm;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.SplittableRandom;
+import java.util.concurrent.RecursiveAction;
 
 /**
+ * A population stored column-wise: packed genes, fitness, and a bit per member
+ * recording whether its fitness has been evaluated yet. Members are referred
+ * to by index; Chromosome objects are only created on request.
  * @author Sage Ralph <SageJeanRalph@Gmail.com>
  */
 public class Generation {
 
-private final Chromosome[] population;
+private final SimulationConfig config;
+private final long[] genes;
+private final double[] fitness;
+private final BitSet evaluated;
 
 /**
- * Create a new Generation from an existing population.
- * @param population
+ * Create a new Generation from existing genes, none of which have been
+ * evaluated.
+ * @param config The simulation's settings
+ * @param genes
  */
-public Generation(Chromosome[] population) {
-    this.population = population;
+public Generation(SimulationConfig config, long[] genes) {
+    this(config, genes, new double[genes.length], new BitSet(genes.length));
+}
+
+/**
+ * Create a new Generation from existing genes, some of which have already
+ * been evaluated (such as preserved elites).
+ * @param config The simulation's settings
+ * @param genes
+ * @param fitness Fitness of each member whose bit is set in evaluated
+ * @param evaluated
+ */
+public Generation(SimulationConfig config, long[] genes, double[] fitness,
+        BitSet evaluated) {
+    this.config = config;
+    this.genes = genes;
+    this.fitness = fitness;
+    this.evaluated = evaluated;
 }
 
 /**
  * Randomly generate a new Generation.
- * @param populationSize
+ * @param config The simulation's settings, including the population size
+ * @param random The source of randomness
  */
-public Generation(int populationSize) {
+public Generation(SimulationConfig config, SplittableRandom random) {
+    this(config, new long[config.populationSize()]);
 
-    population = new Chromosome[populationSize];
-    for (int i = 0; i < populationSize; i++) {
-        population[i] = new Chromosome();
+    for (int i = 0; i < genes.length; i++) {
+        genes[i] = Chromosome.randomGenes(config, random);
     }
 }
 
 @Override
 public String toString() {
-    String str = "";
-    for (Chromosome ch : population) {
-        str += ch.genes() + " ";
+    StringBuilder str = new StringBuilder();
+    for (long g : genes) {
+        str.append(Chromosome.geneString(config, g)).append(' ');
+    }
+    return str.toString();
+}
+
+/**
+ * @param i Index of a member
+ * @return The genes of member i
+ */
+public long genes(int i) {
+    return genes[i];
+}
+
+/**
+ * @param i Index of a member
+ * @return The fitness of member i
+ */
+public double fitness(int i) {
+
+    // Evaluate only when first needed
+    if (!evaluated.get(i)) {
+        fitness[i] = config.fitness(Chromosome.value(config, genes[i]));
+        evaluated.set(i);
     }
-    return str;
+    return fitness[i];
 }
 
-public Chromosome[] getPopulation() {
-    return population;
+/**
+ * @return The number of members whose fitness has not been evaluated yet
+ */
+public int unevaluated() {
+    return genes.length - evaluated.cardinality();
+}
+
+/**
+ * Replaces a member.
+ * @param i Index of the member
+ * @param genes The new member's genes
+ * @param fitness The new member's fitness
+ */
+public void set(int i, long genes, double fitness) {
+    this.genes[i] = genes;
+    this.fitness[i] = fitness;
+    evaluated.set(i);
+}
+
+/**
+ * @param i Index of a member
+ * @return A new Chromosome holding the genes and fitness of member i
+ */
+public Chromosome get(int i) {
+    return new Chromosome(config, genes[i], fitness(i));
 }
 
 public double totalFitness(boolean sigmaScaling) {
@@ -52,31 +125,70 @@ public double totalFitness(boolean sigmaScaling) {
 }
 
 public double averageFitness(boolean sigmaScaling) {
-    return totalFitness(sigmaScaling) / population.length;
+    return totalFitness(sigmaScaling) / genes.length;
 }
 
+/**
+ * Evaluates any members not yet evaluated. Populations larger than the
+ * evaluation threshold are split across a fork-join pool; as each member's
+ * fitness depends on its genes alone, the result is the same either way.
+ * @param sigmaScaling Whether to apply sigma scaling
+ * @return The fitness of every member. Without sigma scaling this is the
+ * Generation's own fitness column, and must not be modified.
+ */
 public double[] getFitnessArray(boolean sigmaScaling) {
 
-    double[] fitArray = new double[population.length];
-
     // Determine fitness
-    for (int i = 0; i < population.length; i++) {
-        fitArray[i] = population[i].fitness();
+    if (evaluated.cardinality() < genes.length) {
+        new Evaluation(0, genes.length).invoke();
+        evaluated.set(0, genes.length);
     }
 
-    if (sigmaScaling) {
-        Statistics s = new Statistics(fitArray);
-        double average = s.getMean();
-        double std = s.getStdDev();
-
-        for (int i = 0; i < population.length; i++) {
-            fitArray[i] = sigmaFitness(fitArray[i], average, std);
-        }
+    if (!sigmaScaling) {
+        return fitness;
     }
 
+    double[] fitArray = new double[genes.length];
+    Statistics s = new Statistics(fitness);
+    double average = s.getMean();
+    double std = s.getStdDev();
+
+    for (int i = 0; i < genes.length; i++) {
+        fitArray[i] = sigmaFitness(fitness[i], average, std);
+    }
     return fitArray;
 }
 
+/**
+ * Evaluates the unevaluated members of a range of indexes, splitting it in two
+ * until it is no larger than the evaluation threshold. Tasks only read
+ * evaluated, and each writes a distinct part of the fitness column.
+ */
+private final class Evaluation extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+    private final int from, to;
+
+    Evaluation(int from, int to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from > config.evaluationThreshold()) {
+            int mid = (from + to) >>> 1;
+            invokeAll(new Evaluation(from, mid), new Evaluation(mid, to));
+            return;
+        }
+
+        for (int i = evaluated.nextClearBit(from); i < to;
+                i = evaluated.nextClearBit(i + 1)) {
+            fitness[i] = config.fitness(Chromosome.value(config, genes[i]));
+        }
+    }
+}
+
 /**
  * Applies sigma scaling to fitness value provided.
  * @param fitness
@@ -95,28 +207,66 @@ private static double sigmaFitness(
     return result;
 }
 
-public Chromosome mostFit() {
-    double maxFitness = -1;
-    Chromosome best = null;
-    for (Chromosome ch : population) {
-        double fitness = ch.fitness();
-        if (fitness > maxFitness) {
-            maxFitness = fitness;
-            best = ch;
+/**
+ * @return Index of the fittest member
+ */
+public int fittestIndex() {
+    double[] fitArray = getFitnessArray(false);
+    int best = 0;
+    for (int i = 1; i < fitArray.length; i++) {
+        if (fitArray[i] > fitArray[best]) {
+            best = i;
         }
     }
     return best;
 }
 
-public Chromosome[] fittest() {
-    Chromosome[] pop = population.clone();
-    Arrays.sort(pop, (Chromosome c1, Chromosome c2)
-            -> c1.fitness() > c2.fitness() ? -1 : 1);
-    return pop;
+public Chromosome mostFit() {
+    return get(fittestIndex());
+}
+
+/**
+ * Finds the fittest members, working on the fitness column alone.
+ * @param count The number of members wanted
+ * @return Indexes of the count fittest members, fittest first
+ */
+public int[] fittest(int count) {
+    double[] fitArray = getFitnessArray(false);
+    count = Math.min(count, fitArray.length);
+    if (count == 0) {
+        return new int[0];
+    }
+
+    // The count-th highest fitness is the cut-off for inclusion
+    double[] sorted = fitArray.clone();
+    Arrays.sort(sorted);
+    double threshold = sorted[sorted.length - count];
+
+    Integer[] chosen = new Integer[count];
+    int n = 0;
+    for (int i = 0; i < fitArray.length && n < count; i++) {
+        if (Double.compare(fitArray[i], threshold) > 0) {
+            chosen[n++] = i;
+        }
+    }
+    for (int i = 0; i < fitArray.length && n < count; i++) {
+        if (Double.compare(fitArray[i], threshold) == 0) {
+            chosen[n++] = i;
+        }
+    }
+
+    Arrays.sort(chosen, (Integer c1, Integer c2)
+            -> Double.compare(fitArray[c2], fitArray[c1]));
+
+    int[] indexes = new int[count];
+    for (int i = 0; i < count; i++) {
+        indexes[i] = chosen[i];
+    }
+    return indexes;
 }
 
 public int popSize(){
-    return population.length;
+    return genes.length;
 }
 
 }
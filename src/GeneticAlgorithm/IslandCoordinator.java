@@ -0,0 +1,292 @@
+package GeneticAlgorithm;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs an IslandModel whose islands are hosted by IslandWorker processes. The
+ * coordinator waits for one connection per island, sends each worker its
+ * settings, then relays migrants between workers according to the topology
+ * until every island is done.
+ *
+ * Each worker has a reader thread and a writer thread. Messages to a worker
+ * wait in a bounded queue and are dropped if it is full, so a slow worker
+ * cannot hold up the rest. A worker whose connection fails, or that sends
+ * nothing for IslandProtocol.LINK_TIMEOUT, is treated as lost; the topology
+ * routes around it and the run carries on without it.
+ * @author Sage Ralph <SageJeanRalph@Gmail.com>
+ */
+public class IslandCoordinator {
+
+// How long to wait for workers to connect, and the messages a worker may have queued
+private static final int ACCEPT_TIMEOUT = 60000;
+private static final int OUTBOX_LIMIT = 1024;
+
+private final IslandModel model;
+private final String settings;
+private final int geneNo;
+private volatile List<Link> links = Collections.emptyList();
+private volatile ServerSocket server;
+private volatile boolean cancelled;
+
+/**
+ * @param model The island model, with a port to listen on
+ * @param settings The settings each worker applies, as from Main.settings()
+ */
+public IslandCoordinator(IslandModel model, String settings) {
+    this.model = model;
+    this.settings = settings;
+    this.geneNo = model.config().geneNo();
+}
+
+/**
+ * Waits for the workers, then coordinates them until every island is done or
+ * lost.
+ * @param random The source of randomness, for island seeds and the topology
+ * @return The outcome of every island; if cancelled before every worker
+ * connected, every island is lost
+ * @throws IOException If the workers did not all connect
+ * @throws InterruptedException
+ */
+public IslandModel.Result run(SplittableRandom random)
+        throws IOException, InterruptedException {
+    int islandCount = model.islandCount();
+    List<Link> current = new ArrayList<>();
+    CountDownLatch finished = new CountDownLatch(islandCount);
+
+    try (ServerSocket listener = new ServerSocket(model.port())) {
+        server = listener;
+        listener.setSoTimeout(ACCEPT_TIMEOUT);
+        for (int i = 0; i < islandCount && !cancelled; i++) {
+            Socket socket;
+            try {
+                socket = listener.accept();
+            } catch (SocketTimeoutException e) {
+                throw new IOException("Only " + i + " of " + islandCount
+                        + " island workers connected to port " + model.port());
+            } catch (SocketException e) {
+                if (cancelled) {
+                    break; // cancel() closed the server socket
+                }
+                throw e;
+            }
+            Link link = new Link(i, socket, random.split(), finished);
+            current.add(link);
+            IslandProtocol.writeSetup(link.out, settings, i, random.nextLong(),
+                    model.interval(), model.migrants());
+            link.out.flush();
+        }
+    } catch (IOException e) {
+        for (Link link : current) {
+            link.close();
+        }
+        throw e;
+    } finally {
+        server = null;
+    }
+
+    links = current;
+    if (cancelled) {
+        for (Link link : current) {
+            link.close();
+        }
+        return result(current);
+    }
+    for (Link link : current) {
+        link.start();
+    }
+    try {
+        finished.await();
+    } finally {
+        for (Link link : current) {
+            link.close();
+        }
+    }
+    return result(current);
+}
+
+/**
+ * @param current The links to every island that connected
+ * @return The outcome of every island, those that did not connect or finish
+ * being lost
+ */
+private IslandModel.Result result(List<Link> current) {
+    int islandCount = model.islandCount();
+
+    long[] bestGenes = new long[islandCount];
+    double[] bestFitness = new double[islandCount];
+    int[] bestGeneration = new int[islandCount];
+    int[] generations = new int[islandCount];
+    boolean[] lost = new boolean[islandCount];
+    for (int i = 0; i < islandCount; i++) {
+        if (i >= current.size() || !current.get(i).done) {
+            lost[i] = true;
+            continue;
+        }
+        Link link = current.get(i);
+        bestGenes[i] = link.bestGenes;
+        bestFitness[i] = link.bestFitness;
+        bestGeneration[i] = link.bestGeneration;
+        generations[i] = link.generations;
+    }
+    return new IslandModel.Result(model.config(), bestGenes, bestFitness,
+            bestGeneration, generations, lost);
+}
+
+/**
+ * Tells every worker to finish at the end of its current generation, or stops
+ * waiting for workers to connect.
+ */
+public void cancel() {
+    cancelled = true;
+    ServerSocket listener = server;
+    if (listener != null) {
+        try {
+            listener.close();
+        } catch (IOException e) {
+            // Already closed
+        }
+    }
+    for (Link link : links) {
+        link.send(new byte[]{IslandProtocol.STOP});
+    }
+}
+
+/**
+ * @return Whether each island is still running
+ */
+private boolean[] alive() {
+    List<Link> current = links;
+    boolean[] alive = new boolean[current.size()];
+    for (int i = 0; i < alive.length; i++) {
+        alive[i] = current.get(i).alive;
+    }
+    return alive;
+}
+
+/**
+ * The connection to the worker hosting one island.
+ */
+private final class Link {
+
+    final int island;
+    final Socket socket;
+    final DataInputStream in;
+    final DataOutputStream out;
+    final SplittableRandom random;
+    final CountDownLatch finished;
+    final BlockingQueue<byte[]> outbox = new ArrayBlockingQueue<>(OUTBOX_LIMIT);
+    volatile boolean alive = true;
+
+    // Outcome, written by the reader thread before it counts down finished
+    boolean done;
+    long bestGenes;
+    double bestFitness;
+    int bestGeneration, generations;
+
+    Link(int island, Socket socket, SplittableRandom random,
+            CountDownLatch finished) throws IOException {
+        this.island = island;
+        this.socket = socket;
+        this.random = random;
+        this.finished = finished;
+        socket.setTcpNoDelay(true);
+        socket.setSoTimeout(IslandProtocol.LINK_TIMEOUT);
+        in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    }
+
+    void start() {
+        Thread reader = new Thread(this::read, "Island " + (island + 1) + " reader");
+        Thread writer = new Thread(this::write, "Island " + (island + 1) + " writer");
+        reader.setDaemon(true);
+        writer.setDaemon(true);
+        reader.start();
+        writer.start();
+    }
+
+    /**
+     * Queues a message for the worker, dropping it if the worker is lost or
+     * too far behind.
+     */
+    void send(byte[] message) {
+        if (alive) {
+            outbox.offer(message);
+        }
+    }
+
+    private void read() {
+        try {
+            while (true) {
+                byte type = in.readByte();
+                if (type == IslandProtocol.MIGRANTS) {
+                    Migration migration = IslandProtocol.readMigrants(in, geneNo);
+                    byte[] message = IslandProtocol.encodeMigrants(geneNo, migration);
+                    for (int target : model.topology().targets(island, alive(), random)) {
+                        links.get(target).send(message);
+                    }
+                } else if (type == IslandProtocol.DONE) {
+                    bestGenes = IslandProtocol.readGenes(in, geneNo);
+                    bestFitness = in.readDouble();
+                    bestGeneration = in.readInt();
+                    generations = in.readInt();
+                    done = true;
+
+                    if (model.config().correctSolution(bestFitness)) {
+                        // No need for the other islands to carry on
+                        cancel();
+                    }
+                    return;
+                } else if (type != IslandProtocol.ALIVE) {
+                    throw new IOException("Unknown message type " + type);
+                }
+            }
+        } catch (IOException e) {
+            // The worker died, hung or misbehaved; carry on without it
+            close();
+        } finally {
+            alive = false;
+            finished.countDown();
+        }
+    }
+
+    private void write() {
+        try {
+            while (alive) {
+                byte[] message = outbox.poll(100, TimeUnit.MILLISECONDS);
+                if (message != null) {
+                    out.write(message);
+                    out.flush();
+                }
+            }
+        } catch (IOException | InterruptedException e) {
+            alive = false;
+            close();
+        }
+    }
+
+    void close() {
+        alive = false;
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Already closed
+        }
+    }
+}
+
+}
@@ -0,0 +1,424 @@
+package GeneticAlgorithm;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evolves several populations (islands) side by side, each by its own
+ * Simulation on its own thread. Every interval generations each island sends
+ * copies of its fittest members to its neighbours in the topology, where they
+ * replace the least fit. Migrants are handed over through lock-free queues,
+ * which an island drains between generations, so islands never wait for one
+ * another. Because of this, which generation migrants arrive in depends on
+ * thread timing, and results are not reproducible from the seed alone.
+ *
+ * A model is described by a spec such as
+ * "islands=4; interval=10; migrants=2; topology=ring"
+ * where topology is ring, full or random. Adding "port=N" hosts the islands in
+ * IslandWorker processes instead, coordinated by an IslandCoordinator
+ * listening on port N.
+ * @author Sage Ralph <SageJeanRalph@Gmail.com>
+ */
+public class IslandModel {
+
+private final SimulationConfig config;
+private final int islandCount, interval, migrants, port;
+private final Topology topology;
+private volatile List<Simulation> islands = new ArrayList<>();
+private volatile IslandCoordinator coordinator;
+private volatile boolean cancelled;
+
+/**
+ * @param config The settings of every island, including its population size
+ * @param islandCount
+ * @param interval Generations between migrations
+ * @param migrants Members sent by each island per migration
+ * @param topology
+ * @param port The port on which to coordinate workers, or 0 to host every
+ * island in this process
+ * @throws IllegalArgumentException If a count or the interval is not positive
+ */
+public IslandModel(SimulationConfig config, int islandCount, int interval,
+        int migrants, Topology topology, int port) {
+    if (islandCount < 1 || interval < 1 || migrants < 1) {
+        throw new IllegalArgumentException("Islands, migration interval and "
+                + "migrants must all be at least 1");
+    }
+    this.config = config;
+    this.islandCount = islandCount;
+    this.interval = interval;
+    this.migrants = migrants;
+    this.topology = topology;
+    this.port = port;
+}
+
+/**
+ * Parses an island model spec. Parameters left out default to 4 islands
+ * exchanging 1 migrant every 10 generations in a ring.
+ * @param spec The spec, as described above
+ * @param config The settings of every island
+ * @return The model
+ * @throws IllegalArgumentException If the spec is invalid
+ */
+public static IslandModel parse(String spec, SimulationConfig config) {
+    int islandCount = 4, interval = 10, migrants = 1, port = 0;
+    Topology topology = Topology.RING;
+
+    for (String part : spec.split(";")) {
+        if (part.trim().isEmpty()) {
+            continue;
+        }
+        String[] keyValue = part.split("=", 2);
+        if (keyValue.length != 2) {
+            throw new IllegalArgumentException("Island parameter "
+                    + part.trim() + " has no value");
+        }
+        String key = keyValue[0].trim();
+        String value = keyValue[1].trim();
+
+        switch (key) {
+            case "islands":
+                islandCount = Integer.parseInt(value);
+                break;
+            case "interval":
+                interval = Integer.parseInt(value);
+                break;
+            case "migrants":
+                migrants = Integer.parseInt(value);
+                break;
+            case "port":
+                port = Integer.parseInt(value);
+                break;
+            case "topology":
+                if (value.equals("ring")) {
+                    topology = Topology.RING;
+                } else if (value.equals("full")) {
+                    topology = Topology.FULLY_CONNECTED;
+                } else if (value.equals("random")) {
+                    topology = Topology.RANDOM;
+                } else {
+                    throw new IllegalArgumentException("Unknown topology "
+                            + value + ", expected ring, full or random");
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown island parameter "
+                        + key + ", expected islands, interval, migrants, "
+                        + "topology or port");
+        }
+    }
+
+    return new IslandModel(config, islandCount, interval, migrants, topology,
+            port);
+}
+
+public SimulationConfig config() {
+    return config;
+}
+
+public int islandCount() {
+    return islandCount;
+}
+
+/**
+ * @return Generations between migrations
+ */
+public int interval() {
+    return interval;
+}
+
+/**
+ * @return Members sent by each island per migration
+ */
+public int migrants() {
+    return migrants;
+}
+
+public Topology topology() {
+    return topology;
+}
+
+/**
+ * @return The port on which to coordinate workers, or 0 if every island is
+ * hosted in this process
+ */
+public int port() {
+    return port;
+}
+
+/**
+ * Evolves every island until each reaches the maximum generation, or any
+ * reaches a known solution.
+ * @param runNo Identifies the run in output
+ * @param scheduler How islands are scheduled onto threads
+ * @param random The source of randomness, split into a stream for each island
+ * @return The outcome of every island
+ * @throws InterruptedException
+ * @throws CancellationException If the model has been cancelled
+ */
+public Result run(String runNo, Scheduler scheduler, SplittableRandom random)
+        throws InterruptedException {
+    List<Simulation> current = new ArrayList<>();
+    List<Queue<Migration>> inboxes = new ArrayList<>();
+    List<SplittableRandom> topologyRandoms = new ArrayList<>();
+    for (int i = 0; i < islandCount; i++) {
+        current.add(new Simulation(runNo + "." + (i + 1), config,
+                random.split()));
+        inboxes.add(new ConcurrentLinkedQueue<>());
+        topologyRandoms.add(random.split());
+    }
+    islands = current;
+    if (cancelled) {
+        throw new CancellationException();
+    }
+
+    List<Callable<Void>> tasks = new ArrayList<>();
+    for (int i = 0; i < islandCount; i++) {
+        int island = i;
+        tasks.add(() -> {
+            evolve(island, current, inboxes, topologyRandoms.get(island));
+            return null;
+        });
+    }
+
+    // Each island needs its own thread, as islands run until told to stop.
+    // Islands are taken as they finish, so the first to fail stops the rest.
+    ExecutorService executor = scheduler.create(islandCount);
+    CompletionService<Void> completion
+            = new ExecutorCompletionService<>(executor);
+    try {
+        for (Callable<Void> task : tasks) {
+            completion.submit(task);
+        }
+        for (int i = 0; i < islandCount; i++) {
+            completion.take().get();
+        }
+    } catch (ExecutionException e) {
+        cancel();
+        if (e.getCause() instanceof RuntimeException) {
+            throw (RuntimeException) e.getCause();
+        }
+        throw new IllegalStateException(e.getCause());
+    } catch (InterruptedException e) {
+        cancel();
+        throw e;
+    } finally {
+        executor.shutdownNow();
+
+        // Not every scheduler interrupts islands in progress, so wait for
+        // them to stop
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+    return Result.of(config, current);
+}
+
+/**
+ * Evolves every island in IslandWorker processes, which must connect to
+ * port(), until each reaches the maximum generation or any reaches a known
+ * solution.
+ * @param settings The settings each worker applies, as from Main.settings()
+ * @param random The source of randomness, for island seeds and the topology
+ * @return The outcome of every island; those whose workers died are lost
+ * @throws IOException If the workers did not all connect
+ * @throws InterruptedException
+ * @throws CancellationException If the model has been cancelled
+ */
+public Result runRemote(String settings, SplittableRandom random)
+        throws IOException, InterruptedException {
+    IslandCoordinator current = new IslandCoordinator(this, settings);
+    coordinator = current;
+    try {
+        if (cancelled) {
+            throw new CancellationException();
+        }
+        return current.run(random);
+    } finally {
+        coordinator = null;
+    }
+}
+
+/**
+ * Evolves one island, exchanging migrants with its neighbours.
+ */
+private void evolve(int island, List<Simulation> islands,
+        List<Queue<Migration>> inboxes, SplittableRandom random) {
+    Simulation simulation = islands.get(island);
+    Queue<Migration> inbox = inboxes.get(island);
+
+    simulation.start();
+    while (!simulation.isFinished()) {
+        simulation.step();
+
+        if (simulation.generation() % interval == 0) {
+            Migration emigrants = simulation.emigrate(migrants);
+            for (int target : topology.targets(island, islandCount, random)) {
+                inboxes.get(target).offer(emigrants);
+            }
+        }
+
+        // Take in whatever has arrived, without waiting for more
+        for (Migration m = inbox.poll(); m != null; m = inbox.poll()) {
+            simulation.immigrate(m);
+        }
+
+        if (simulation.isSolved()) {
+            // No need for the other islands to carry on
+            for (Simulation other : islands) {
+                other.cancel();
+            }
+        }
+    }
+    simulation.finish();
+}
+
+/**
+ * Stops every island of the run in progress at the end of its current
+ * generation, and any later run before it starts.
+ */
+public void cancel() {
+    cancelled = true;
+    for (Simulation island : islands) {
+        island.cancel();
+    }
+    IslandCoordinator current = coordinator;
+    if (current != null) {
+        current.cancel();
+    }
+}
+
+@Override
+public String toString() {
+    return islandCount + (port > 0 ? " remote" : "") + " islands of "
+            + config.populationSize() + ", "
+            + topology.toString().toLowerCase() + " topology, "
+            + migrants + " migrant" + (migrants == 1 ? "" : "s") + " every "
+            + interval + " generations";
+}
+
+/**
+ * The outcome of every island of a run. Islands hosted by workers that died
+ * are marked as lost, and have no outcome.
+ */
+public static final class Result {
+
+    private final SimulationConfig config;
+    private final long[] bestGenes;
+    private final double[] bestFitness;
+    private final int[] bestGeneration, generations;
+    private final boolean[] lost;
+    private final int best;
+
+    Result(SimulationConfig config, long[] bestGenes, double[] bestFitness,
+            int[] bestGeneration, int[] generations, boolean[] lost) {
+        this.config = config;
+        this.bestGenes = bestGenes;
+        this.bestFitness = bestFitness;
+        this.bestGeneration = bestGeneration;
+        this.generations = generations;
+        this.lost = lost;
+
+        int fittest = -1;
+        for (int i = 0; i < lost.length; i++) {
+            if (!lost[i] && (fittest < 0 || bestFitness[i] > bestFitness[fittest])) {
+                fittest = i;
+            }
+        }
+        best = fittest;
+    }
+
+    static Result of(SimulationConfig config, List<Simulation> islands) {
+        int n = islands.size();
+        long[] bestGenes = new long[n];
+        double[] bestFitness = new double[n];
+        int[] bestGeneration = new int[n];
+        int[] generations = new int[n];
+        for (int i = 0; i < n; i++) {
+            Simulation island = islands.get(i);
+            bestGenes[i] = island.best().genes();
+            bestFitness[i] = island.bestFitness();
+            bestGeneration[i] = island.bestGeneration();
+            generations[i] = island.generation();
+        }
+        return new Result(config, bestGenes, bestFitness, bestGeneration,
+                generations, new boolean[n]);
+    }
+
+    /**
+     * @param island The index of an island
+     * @return Whether the island's worker died before it was done
+     */
+    public boolean isLost(int island) {
+        return lost[island];
+    }
+
+    /**
+     * @param island The index of an island
+     * @return The number of generations the island evolved
+     */
+    public int generations(int island) {
+        return generations[island];
+    }
+
+    /**
+     * @return The index of the island that found the best solution, or -1 if
+     * every island was lost
+     */
+    public int bestIsland() {
+        return best;
+    }
+
+    /**
+     * @return The best solution, or null if every island was lost
+     */
+    public Chromosome best() {
+        return best < 0 ? null
+                : new Chromosome(config, bestGenes[best], bestFitness[best]);
+    }
+
+    /**
+     * @return The generation in which the best solution was found
+     */
+    public int bestGeneration() {
+        return best < 0 ? 0 : bestGeneration[best];
+    }
+
+    /**
+     * @return The best solution of each island, and of all islands
+     */
+    public String describe() {
+        StringBuilder str = new StringBuilder();
+        for (int i = 0; i < lost.length; i++) {
+            str.append("Island ").append(i + 1);
+            if (lost[i]) {
+                str.append(": lost\n");
+                continue;
+            }
+            str.append(": best value = ")
+                    .append(Chromosome.toString(config, bestGenes[i]))
+                    .append(" with fitness ").append(bestFitness[i])
+                    .append(", best generation = ").append(bestGeneration[i])
+                    .append(" of ").append(generations[i])
+                    .append('\n');
+        }
+        if (best < 0) {
+            return str.append("Every island was lost\n").toString();
+        }
+        return str.append("Global best: island ").append(best + 1)
+                .append(", value = ").append(best())
+                .append(" with fitness ").append(bestFitness[best])
+                .append(", generation ").append(bestGeneration())
+                .append('\n').toString();
+    }
+}
+
+}
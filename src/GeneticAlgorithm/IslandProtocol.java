@@ -0,0 +1,123 @@
+package GeneticAlgorithm;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * The binary messages exchanged by an IslandCoordinator and its IslandWorkers.
+ * Each message is a type byte followed by its fields, written with
+ * DataOutputStream. Genes are packed into the fewest whole bytes that hold
+ * geneNo bits, which both ends know from the settings.
+ *
+ * SETUP    (coordinator to worker) settings, island, seed, interval, migrants
+ * MIGRANTS (either way) count, then genes and fitness of each migrant
+ * DONE     (worker to coordinator) best genes, best fitness, best generation,
+ *          generations evolved
+ * STOP     (coordinator to worker) finish at the end of the current generation
+ * ALIVE    (worker to coordinator) sent every HEARTBEAT_INTERVAL, however
+ *          long a generation takes
+ *
+ * A worker that sends nothing for LINK_TIMEOUT is taken to have died, or to
+ * have lost its connection without closing it, and its island is lost.
+ * @author Sage Ralph <SageJeanRalph@Gmail.com>
+ */
+final class IslandProtocol {
+
+static final byte SETUP = 0, MIGRANTS = 1, DONE = 2, STOP = 3, ALIVE = 4;
+
+// Milliseconds
+static final int HEARTBEAT_INTERVAL = 1000;
+static final int LINK_TIMEOUT = 30000;
+
+private IslandProtocol() {
+}
+
+static void writeSetup(DataOutputStream out, String settings, int island,
+        long seed, int interval, int migrants) throws IOException {
+    out.writeByte(SETUP);
+    out.writeUTF(settings);
+    out.writeInt(island);
+    out.writeLong(seed);
+    out.writeInt(interval);
+    out.writeInt(migrants);
+}
+
+/**
+ * @param geneNo The number of genes in every chromosome
+ * @param migration The migrants
+ * @return A complete MIGRANTS message
+ */
+static byte[] encodeMigrants(int geneNo, Migration migration) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(
+            5 + migration.size() * (geneBytes(geneNo) + 8));
+    DataOutputStream out = new DataOutputStream(bytes);
+    try {
+        out.writeByte(MIGRANTS);
+        out.writeInt(migration.size());
+        for (int i = 0; i < migration.size(); i++) {
+            writeGenes(out, geneNo, migration.genes(i));
+            out.writeDouble(migration.fitness(i));
+        }
+    } catch (IOException e) {
+        throw new IllegalStateException(e); // Not thrown by a byte array
+    }
+    return bytes.toByteArray();
+}
+
+/**
+ * Reads the body of a MIGRANTS message, whose type has already been read.
+ * @param in
+ * @param geneNo The number of genes in every chromosome
+ * @return The migrants
+ * @throws IOException
+ */
+static Migration readMigrants(DataInputStream in, int geneNo)
+        throws IOException {
+    int count = in.readInt();
+    if (count < 0 || count > 1 << 20) {
+        throw new IOException("Bad migrant count " + count);
+    }
+    long[] genes = new long[count];
+    double[] fitness = new double[count];
+    for (int i = 0; i < count; i++) {
+        genes[i] = readGenes(in, geneNo);
+        fitness[i] = in.readDouble();
+    }
+    return new Migration(genes, fitness);
+}
+
+static void writeDone(DataOutputStream out, int geneNo, long bestGenes,
+        double bestFitness, int bestGeneration, int generations)
+        throws IOException {
+    out.writeByte(DONE);
+    writeGenes(out, geneNo, bestGenes);
+    out.writeDouble(bestFitness);
+    out.writeInt(bestGeneration);
+    out.writeInt(generations);
+}
+
+/**
+ * @param geneNo The number of genes in every chromosome
+ * @return The number of bytes needed to hold geneNo bits
+ */
+static int geneBytes(int geneNo) {
+    return (geneNo + 7) / 8;
+}
+
+static void writeGenes(DataOutputStream out, int geneNo, long genes)
+        throws IOException {
+    for (int shift = (geneBytes(geneNo) - 1) * 8; shift >= 0; shift -= 8) {
+        out.writeByte((int) (genes >>> shift));
+    }
+}
+
+static long readGenes(DataInputStream in, int geneNo) throws IOException {
+    long genes = 0;
+    for (int i = 0; i < geneBytes(geneNo); i++) {
+        genes = genes << 8 | in.readUnsignedByte();
+    }
+    return genes;
+}
+
+}
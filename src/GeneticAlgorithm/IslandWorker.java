@@ -0,0 +1,220 @@
+package GeneticAlgorithm;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hosts islands of an IslandModel for an IslandCoordinator in another
+ * process. Each island has its own connection, over which it receives its
+ * settings, sends its fittest members every interval generations, and
+ * receives migrants from its neighbours. Migrants are read on a separate
+ * thread and handed to the island through a lock-free queue, so the island
+ * never waits on the network for them. Heartbeats are sent on a timer of their
+ * own, so the coordinator knows the worker is alive however long a generation
+ * takes.
+ *
+ * Usage: java -cp GeneticAlgorithm.jar GeneticAlgorithm.IslandWorker host port [islands]
+ * @author Sage Ralph <SageJeanRalph@Gmail.com>
+ */
+public class IslandWorker {
+
+/**
+ * @param args The coordinator's host and port, and optionally the number of
+ * islands to host (default 1)
+ * @throws InterruptedException
+ */
+public static void main(String[] args) throws InterruptedException {
+    if (args.length < 2) {
+        System.err.println("Usage: IslandWorker host port [islands]");
+        System.exit(2);
+    }
+    boolean hosted = serve(args[0], Integer.parseInt(args[1]),
+            args.length > 2 ? Integer.parseInt(args[2]) : 1);
+    System.exit(hosted ? 0 : 1);
+}
+
+/**
+ * Hosts islands for a coordinator until every one is done.
+ * @param host The coordinator's host
+ * @param port The coordinator's port
+ * @param islands The number of islands to host, each on its own connection
+ * @return Whether every island was hosted until it was done, rather than
+ * failing to connect or losing its connection
+ * @throws InterruptedException
+ */
+public static boolean serve(String host, int port, int islands)
+        throws InterruptedException {
+
+    // Every island of this process shares one log, written to Main's output,
+    // and one set of metrics
+    LogSink log = Main.openLog();
+    Metrics metrics = new Metrics();
+    metrics.publish();
+    List<Thread> threads = new ArrayList<>();
+    AtomicBoolean failed = new AtomicBoolean();
+    for (int i = 0; i < islands; i++) {
+        Thread thread = new Thread(() -> {
+            try {
+                host(host, port, log, metrics);
+            } catch (IOException e) {
+                failed.set(true);
+                System.err.println("Island worker failed: " + e.getMessage());
+            }
+        });
+        thread.start();
+        threads.add(thread);
+    }
+    for (Thread thread : threads) {
+        thread.join();
+    }
+    log.close();
+    Main.output(metrics.describe() + "\n");
+    return !failed.get();
+}
+
+/**
+ * Connects to a coordinator and hosts one island until it is done.
+ * @param host The coordinator's host
+ * @param port The coordinator's port
+ * @param log Where the island's output goes
+ * @param metrics Where the island's timings and counters go
+ * @throws IOException If the connection fails or the settings are invalid
+ */
+public static void host(String host, int port, LogSink log, Metrics metrics)
+        throws IOException {
+    try (Socket socket = new Socket(host, port)) {
+        socket.setTcpNoDelay(true);
+        DataInputStream in = new DataInputStream(
+                new BufferedInputStream(socket.getInputStream()));
+        DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(socket.getOutputStream()));
+
+        if (in.readByte() != IslandProtocol.SETUP) {
+            throw new IOException("Expected settings from the coordinator");
+        }
+        String settings = in.readUTF();
+        int island = in.readInt();
+        long seed = in.readLong();
+        int interval = in.readInt();
+        int migrants = in.readInt();
+
+        Thread heartbeat = new Thread(() -> {
+            try {
+                while (true) {
+                    Thread.sleep(IslandProtocol.HEARTBEAT_INTERVAL);
+                    synchronized (out) {
+                        out.writeByte(IslandProtocol.ALIVE);
+                        out.flush();
+                    }
+                }
+            } catch (IOException | InterruptedException e) {
+                // The island is done, or the coordinator has gone
+            }
+        }, "Island " + (island + 1) + " heartbeat");
+        heartbeat.setDaemon(true);
+        heartbeat.start();
+        try {
+            evolve(in, out, settings, island, seed, interval, migrants, log,
+                    metrics);
+        } finally {
+            heartbeat.interrupt();
+        }
+    }
+}
+
+/**
+ * Evolves an island, exchanging migrants with the coordinator, and reports
+ * its outcome. Writes to out are made holding its lock, which heartbeats
+ * share.
+ */
+private static void evolve(DataInputStream in, DataOutputStream out,
+        String settings, int island, long seed, int interval, int migrants,
+        LogSink log, Metrics metrics) throws IOException {
+    SimulationConfig config;
+    try {
+        config = configure(settings, log, metrics);
+    } catch (IllegalArgumentException e) {
+        throw new IOException("Invalid settings: " + e.getMessage(), e);
+    }
+    int geneNo = config.geneNo();
+    Simulation simulation = new Simulation("island " + (island + 1),
+            config, new SplittableRandom(seed));
+
+    Queue<Migration> inbox = new ConcurrentLinkedQueue<>();
+    Thread reader = new Thread(() -> {
+        try {
+            while (true) {
+                byte type = in.readByte();
+                if (type == IslandProtocol.MIGRANTS) {
+                    inbox.offer(IslandProtocol.readMigrants(in, geneNo));
+                } else if (type == IslandProtocol.STOP) {
+                    simulation.cancel();
+                } else {
+                    throw new IOException("Unknown message type " + type);
+                }
+            }
+        } catch (IOException e) {
+            // The coordinator has gone, so there is no point carrying on
+            simulation.cancel();
+        }
+    }, "Island " + (island + 1) + " reader");
+    reader.setDaemon(true);
+    reader.start();
+
+    simulation.start();
+    while (!simulation.isFinished()) {
+        simulation.step();
+
+        if (simulation.generation() % interval == 0) {
+            byte[] message = IslandProtocol.encodeMigrants(geneNo,
+                    simulation.emigrate(migrants));
+            synchronized (out) {
+                out.write(message);
+                out.flush();
+            }
+        }
+
+        // Take in whatever has arrived, without waiting for more
+        for (Migration m = inbox.poll(); m != null; m = inbox.poll()) {
+            simulation.immigrate(m);
+        }
+    }
+    simulation.finish();
+
+    synchronized (out) {
+        IslandProtocol.writeDone(out, geneNo, simulation.best().genes(),
+                simulation.bestFitness(), simulation.bestGeneration(),
+                simulation.generation());
+        out.flush();
+    }
+}
+
+/**
+ * Builds the settings of an island. Main's variables are shared by every
+ * island of this process, so they are applied and read under a lock.
+ * @param settings The settings, as from Main.settings()
+ * @param log Where the island's output goes
+ * @param metrics Where the island's timings and counters go
+ * @return The settings
+ */
+private static SimulationConfig configure(String settings, LogSink log,
+        Metrics metrics) {
+    synchronized (Main.class) {
+        Main.applySettings(settings);
+        FitnessFunction fitness = new FitnessFunction(Main.fitnessFunction,
+                Main.knownMin, Main.compileFitness);
+        return Main.config(new FitnessCache(fitness, Main.rangeMin,
+                Main.rangeMax), log, metrics);
+    }
+}
+
+}
@@ -0,0 +1,284 @@
+package GeneticAlgorithm;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Read access to a log file by line number, without loading it into memory.
+ * The file is read through memory-mapped windows, and indexed by the offset
+ * of every STRIDE-th line and the first line of every run; other lines are
+ * found by scanning forward from the nearest indexed one. The file may grow
+ * while it is open, as when a simulation is writing it: refresh() indexes
+ * whatever has been added, a bounded amount at a time.
+ * @author Sage Ralph <SageJeanRalph@Gmail.com>
+ */
+public class LogFile implements Closeable {
+
+// Lines between index entries, bytes per mapped window, and the most bytes
+// indexed by one refresh
+private static final int STRIDE = 64;
+private static final int WINDOW = 1 << 22;
+private static final long REFRESH_LIMIT = 1 << 23;
+
+private final Path path;
+private final FileChannel channel;
+
+// Index
+private long[] offsets = new long[1024]; // Offset of line i * STRIDE
+private long lines; // Complete lines, each ended by '\n'
+private long indexed; // Bytes indexed
+private long lineStart; // Offset of the line after the last complete one
+private long longest; // Bytes in the longest complete line
+private final Map<String, Long> runs = new HashMap<>();
+
+// Mapped window
+private MappedByteBuffer window;
+private long windowStart;
+
+/**
+ * @param path
+ * @throws IOException If the file cannot be opened
+ */
+public LogFile(Path path) throws IOException {
+    this.path = path;
+    channel = FileChannel.open(path, StandardOpenOption.READ);
+}
+
+public Path path() {
+    return path;
+}
+
+/**
+ * Indexes up to REFRESH_LIMIT bytes added to the file since the last
+ * refresh. If the file has shrunk it is indexed again from the start.
+ * @return Whether the file has grown or been reset; false if nothing changed
+ * @throws IOException
+ */
+public boolean refresh() throws IOException {
+    long size = channel.size();
+    if (size < indexed) {
+        lines = 0;
+        indexed = 0;
+        lineStart = 0;
+        longest = 0;
+        runs.clear();
+        window = null;
+        return true;
+    }
+    if (size == indexed) {
+        return false;
+    }
+
+    long end = Math.min(size, indexed + REFRESH_LIMIT);
+    for (long pos = indexed; pos < end; pos++) {
+        if (byteAt(pos) == '\n') {
+            indexRun(lineStart, pos);
+            longest = Math.max(longest, pos - lineStart);
+            lines++;
+            lineStart = pos + 1;
+            if (lines % STRIDE == 0) {
+                int entry = (int) (lines / STRIDE);
+                if (entry == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, entry * 2);
+                }
+                offsets[entry] = lineStart;
+            }
+        }
+    }
+    indexed = end;
+    return true;
+}
+
+/**
+ * Records the line from start to end if it is the first to mention its run.
+ * Runs are mentioned as "Run X ..." or "Run X: ...", possibly after the
+ * dashes of a detail header.
+ */
+private void indexRun(long start, long end) {
+    long pos = start;
+    while (pos < end && (byteAt(pos) == ' ' || byteAt(pos) == '-')) {
+        pos++;
+    }
+    if (end - pos < 5 || byteAt(pos) != 'R' || byteAt(pos + 1) != 'u'
+            || byteAt(pos + 2) != 'n' || byteAt(pos + 3) != ' ') {
+        return;
+    }
+    long runEnd = pos + 4;
+    while (runEnd < end && byteAt(runEnd) != ' ' && byteAt(runEnd) != ':') {
+        runEnd++;
+    }
+    if (runEnd > pos + 4) {
+        runs.putIfAbsent(text(pos + 4, runEnd), lines);
+    }
+}
+
+/**
+ * @return The number of lines indexed so far, counting an unfinished last
+ * line
+ */
+public long lineCount() {
+    return lines + (indexed > lineStart ? 1 : 0);
+}
+
+/**
+ * @return The length in bytes of the longest line indexed so far, without its
+ * line break
+ */
+public long longestLine() {
+    return Math.max(longest, indexed - lineStart);
+}
+
+/**
+ * @return Whether the whole file has been indexed
+ * @throws IOException
+ */
+public boolean isIndexed() throws IOException {
+    return indexed == channel.size();
+}
+
+/**
+ * @param line A line number below lineCount()
+ * @return The offset of the start of the line
+ */
+public long offset(long line) {
+    if (line >= lines) {
+        return lineStart;
+    }
+    long pos = offsets[(int) (line / STRIDE)];
+    for (long skip = line % STRIDE; skip > 0; pos++) {
+        if (byteAt(pos) == '\n') {
+            skip--;
+        }
+    }
+    return pos;
+}
+
+/**
+ * @param offset An offset within the indexed part of the file
+ * @return The number of the line containing offset
+ */
+public long lineAt(long offset) {
+    if (offset >= lineStart) {
+        return lines;
+    }
+    int entry = Arrays.binarySearch(offsets, 0, (int) (lines / STRIDE) + 1,
+            offset);
+    if (entry < 0) {
+        entry = -entry - 2; // The entry before the insertion point
+    }
+    long line = (long) entry * STRIDE;
+    for (long pos = offsets[entry]; pos < offset; pos++) {
+        if (byteAt(pos) == '\n') {
+            line++;
+        }
+    }
+    return line;
+}
+
+/**
+ * @param line A line number below lineCount()
+ * @param maxLength The most characters wanted; longer lines are cut short
+ * @return The text of the line, without its line break
+ */
+public String line(long line, int maxLength) {
+    long start = offset(line);
+    long end = start;
+    long limit = Math.min(indexed, start + maxLength);
+    while (end < limit && byteAt(end) != '\n') {
+        end++;
+    }
+    return text(start, end);
+}
+
+/**
+ * @return The first line mentioning run, or -1 if it has not been seen
+ */
+public long runLine(String run) {
+    Long line = runs.get(run);
+    return line == null ? -1 : line;
+}
+
+/**
+ * Searches the indexed part of the file for text, a bounded amount at a
+ * time so that long searches can be spread over several calls.
+ * @param text The text to find, matched exactly
+ * @param from The offset at which to start
+ * @param limit The most bytes to search
+ * @return The offset of the first match or, if there was none within limit
+ * bytes, -1 - the offset at which to resume; the search has failed once that
+ * reaches length()
+ */
+public long find(byte[] text, long from, long limit) {
+    long end = Math.min(indexed, from + limit);
+    long last = indexed - text.length;
+    for (long pos = from; pos < end && pos <= last; pos++) {
+        if (byteAt(pos) == text[0] && matches(text, pos)) {
+            return pos;
+        }
+    }
+    return -1 - end;
+}
+
+private boolean matches(byte[] text, long pos) {
+    for (int i = 1; i < text.length; i++) {
+        if (byteAt(pos + i) != text[i]) {
+            return false;
+        }
+    }
+    return true;
+}
+
+/**
+ * @return The length of the part of the file indexed so far
+ */
+public long length() {
+    return indexed;
+}
+
+private String text(long start, long end) {
+    byte[] bytes = new byte[(int) (end - start)];
+    for (int i = 0; i < bytes.length; i++) {
+        bytes[i] = byteAt(start + i);
+    }
+    return new String(bytes, StandardCharsets.UTF_8);
+}
+
+/**
+ * @param pos An offset below the file's size
+ * @return The byte at pos, read through the mapped window containing it
+ */
+private byte byteAt(long pos) {
+    long relative = pos - windowStart;
+    if (window == null || relative < 0 || relative >= window.limit()) {
+        map(pos);
+        relative = pos - windowStart;
+    }
+    return window.get((int) relative);
+}
+
+private void map(long pos) {
+    try {
+        windowStart = pos - pos % WINDOW;
+        long length = Math.min(WINDOW, channel.size() - windowStart);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart,
+                length);
+    } catch (IOException e) {
+        throw new IllegalStateException("Cannot read " + path + ": "
+                + e.getMessage(), e);
+    }
+}
+
+@Override
+public void close() throws IOException {
+    window = null;
+    channel.close();
+}
+
+}
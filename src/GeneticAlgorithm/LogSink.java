@@ -0,0 +1,190 @@
+package GeneticAlgorithm;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Carries log events from any number of simulation threads to a single writer
+ * thread, which passes them in batches to Main's output or a file. The queue
+ * is lock-free and bounded by the characters waiting in it: when it is full,
+ * producers either wait for the writer to catch up or drop the event, so
+ * verbose runs hold a fixed amount of log in memory however long they run.
+ * @author Sage Ralph <SageJeanRalph@Gmail.com>
+ */
+public class LogSink {
+
+public enum Policy {
+    BLOCK, DROP
+}
+
+// Characters passed to the target at once, beyond which a batch is cut short
+private static final int BATCH = 1 << 16;
+
+private final Consumer<String> target;
+private final Closeable resource;
+private final long capacity;
+private final Policy policy;
+private final Queue<String> queue = new ConcurrentLinkedQueue<>();
+private final AtomicLong size = new AtomicLong(); // Characters waiting
+private final LongAdder dropped = new LongAdder();
+private final Thread writer;
+private volatile boolean closed;
+private volatile RuntimeException failure;
+
+/**
+ * @param target Receives batches of events, on the writer thread
+ * @param resource Closed along with the sink, or null
+ * @param capacity The most characters waiting at once
+ * @param policy What producers do when the queue is full
+ */
+public LogSink(Consumer<String> target, Closeable resource, int capacity,
+        Policy policy) {
+    this.target = target;
+    this.resource = resource;
+    this.capacity = Math.max(1, capacity);
+    this.policy = policy;
+    writer = new Thread(this::drain, "Log writer");
+    writer.setDaemon(true);
+    writer.start();
+}
+
+/**
+ * @param capacity The most characters waiting at once
+ * @param policy What producers do when the queue is full
+ * @return A sink writing to Main's output: the GUI, or standard output
+ */
+public static LogSink output(int capacity, Policy policy) {
+    return new LogSink(Main::output, null, capacity, policy);
+}
+
+/**
+ * @param file The file to write, replacing any existing content
+ * @param capacity The most characters waiting at once
+ * @param policy What producers do when the queue is full
+ * @return A sink writing to file
+ * @throws IOException If the file cannot be opened
+ */
+public static LogSink file(Path file, int capacity, Policy policy)
+        throws IOException {
+    BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+    return new LogSink(text -> write(out, text), out, capacity, policy);
+}
+
+private static void write(Writer out, String text) {
+    try {
+        out.write(text);
+    } catch (IOException e) {
+        throw new UncheckedIOException(e);
+    }
+}
+
+/**
+ * Queues an event, waiting or dropping it according to the policy if the
+ * queue is full. An event larger than the capacity is only queued once the
+ * queue is empty. Events logged after the sink is closed are dropped.
+ * @param event
+ */
+public void log(String event) {
+    int length = event.length();
+    long waiting;
+    do {
+        waiting = size.get();
+        if (closed || waiting > 0 && waiting + length > capacity) {
+            if (policy == Policy.DROP || closed) {
+                dropped.increment();
+                return;
+            }
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(this, 100_000); // Let the writer catch up
+            waiting = -1;
+        }
+    } while (waiting < 0 || !size.compareAndSet(waiting, waiting + length));
+
+    // The sink may have closed since the check; close() writes what was
+    // counted before it closed, and anything counted after is dropped
+    if (closed) {
+        size.addAndGet(-length);
+        dropped.increment();
+        return;
+    }
+    queue.offer(event);
+    if (waiting == 0) {
+        LockSupport.unpark(writer);
+    }
+}
+
+private void drain() {
+    StringBuilder batch = new StringBuilder();
+    while (true) {
+        String event = queue.poll();
+        if (event == null) {
+            if (closed && size.get() == 0) {
+                return;
+            }
+            LockSupport.parkNanos(this, 1_000_000);
+            continue;
+        }
+
+        batch.setLength(0);
+        do {
+            batch.append(event);
+        } while (batch.length() < BATCH && (event = queue.poll()) != null);
+
+        try {
+            target.accept(batch.toString());
+        } catch (RuntimeException e) {
+            if (failure == null) {
+                failure = e;
+            }
+        }
+        size.addAndGet(-batch.length());
+    }
+}
+
+/**
+ * @return The number of events dropped so far
+ */
+public long dropped() {
+    return dropped.sum();
+}
+
+/**
+ * Writes any events still waiting, then stops the writer thread and closes
+ * the target.
+ * @throws InterruptedException
+ * @throws UncheckedIOException If writing to a file failed
+ */
+public void close() throws InterruptedException {
+    closed = true;
+    LockSupport.unpark(writer);
+    writer.join();
+
+    // A producer may have counted its event as the writer finished
+    drain();
+
+    if (resource != null) {
+        try {
+            resource.close();
+        } catch (IOException e) {
+            if (failure == null) {
+                failure = new UncheckedIOException(e);
+            }
+        }
+    }
+    if (failure != null) {
+        throw failure;
+    }
+}
+
+}
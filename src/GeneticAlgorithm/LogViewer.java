@@ -0,0 +1,378 @@
+package GeneticAlgorithm;
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.awt.Font;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.swing.AbstractListModel;
+import javax.swing.JButton;
+import javax.swing.JFileChooser;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextField;
+import javax.swing.Timer;
+
+/**
+ * Shows a log file of any size, a screenful at a time. Output appended to
+ * the viewer is written to a temporary session file rather than kept in
+ * memory; the file is read back through a LogFile, and only the lines on
+ * screen are ever decoded. The viewer can also follow any other log, such as
+ * one being written by a LogSink.
+ *
+ * Searching and jumping to a run or generation scan the file in slices, one
+ * slice per frame, so the window stays responsive however large the log.
+ * All methods must be called on the Event Dispatch Thread.
+ * @author Sage Ralph <SageJeanRalph@Gmail.com>
+ */
+public class LogViewer extends JPanel {
+
+private static final long serialVersionUID = 1L;
+
+// Refresh interval, bytes searched per frame, and the longest line shown
+private static final int FRAME_MS = 40;
+private static final long SEARCH_STEP = 1 << 24;
+private static final int MAX_LINE = 2000;
+
+private final Lines lines = new Lines();
+private final JList<String> list = new JList<>(lines);
+private final JTextField inFind = new JTextField(14);
+private final JTextField inRun = new JTextField(4);
+private final JTextField inGeneration = new JTextField(5);
+private final JButton btnOutput = new JButton("Output");
+private final JLabel status = new JLabel();
+
+private Path sessionPath;
+private Writer session;
+private LogFile file; // The file shown, the session file unless one was opened
+
+// Search in progress, if any
+private byte[] searchText;
+private long searchFrom;
+private boolean searchGeneration; // Whether a match must end the number
+
+private int columns = -1; // The width of the cells, in characters
+
+public LogViewer() {
+    super(new BorderLayout());
+
+    // Cells are as wide as the longest line, so long lines scroll sideways
+    // rather than being cut off, and are all the same height
+    list.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+    list.setPrototypeCellValue("x");
+
+    JButton btnFind = new JButton("Next");
+    JButton btnGo = new JButton("Go");
+    JButton btnOpen = new JButton("Open log...");
+    btnFind.addActionListener(evt -> findText());
+    inFind.addActionListener(evt -> findText());
+    btnGo.addActionListener(evt -> jump());
+    inRun.addActionListener(evt -> jump());
+    inGeneration.addActionListener(evt -> jump());
+    btnOpen.addActionListener(evt -> chooseLog());
+    btnOutput.addActionListener(evt -> showOutput());
+    btnOutput.setEnabled(false);
+
+    JPanel tools = new JPanel(new FlowLayout(FlowLayout.LEFT));
+    tools.add(new JLabel("Find"));
+    tools.add(inFind);
+    tools.add(btnFind);
+    tools.add(new JLabel("Run"));
+    tools.add(inRun);
+    tools.add(new JLabel("Generation"));
+    tools.add(inGeneration);
+    tools.add(btnGo);
+    tools.add(btnOpen);
+    tools.add(btnOutput);
+    tools.add(status);
+
+    add(tools, BorderLayout.NORTH);
+    add(new JScrollPane(list), BorderLayout.CENTER);
+
+    try {
+        openSession();
+    } catch (IOException e) {
+        status.setText("Cannot create output file: " + e.getMessage());
+    }
+    new Timer(FRAME_MS, evt -> refresh()).start();
+}
+
+/**
+ * Appends text to the session file, where it will be shown at the next
+ * refresh.
+ * @param text
+ */
+public void append(String text) {
+    if (session == null) {
+        return;
+    }
+    try {
+        session.write(text);
+        session.flush();
+    } catch (IOException e) {
+        status.setText("Cannot write output: " + e.getMessage());
+    }
+}
+
+/**
+ * Discards the session's output, starting a new session file.
+ */
+public void clear() {
+    try {
+        closeSession();
+        openSession();
+    } catch (IOException e) {
+        status.setText("Cannot create output file: " + e.getMessage());
+    }
+}
+
+private void openSession() throws IOException {
+    sessionPath = Files.createTempFile("GeneticAlgorithm", ".log");
+    sessionPath.toFile().deleteOnExit();
+    session = Files.newBufferedWriter(sessionPath, StandardCharsets.UTF_8);
+    if (file == null) {
+        show(new LogFile(sessionPath));
+    }
+}
+
+private void closeSession() throws IOException {
+    if (file != null && file.path().equals(sessionPath)) {
+        show(null);
+    }
+    if (session != null) {
+        session.close();
+        session = null;
+        Files.deleteIfExists(sessionPath);
+    }
+}
+
+/**
+ * Shows a log instead of the current one.
+ * @param log The log, or null to show nothing
+ */
+private void show(LogFile log) throws IOException {
+    if (file != null) {
+        file.close();
+    }
+    file = log;
+    searchText = null;
+    lines.reset();
+    btnOutput.setEnabled(log != null && !log.path().equals(sessionPath));
+    status.setText("");
+}
+
+private void chooseLog() {
+    JFileChooser chooser = new JFileChooser();
+    if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+        return;
+    }
+    try {
+        show(new LogFile(chooser.getSelectedFile().toPath()));
+    } catch (IOException e) {
+        status.setText("Cannot open " + chooser.getSelectedFile() + ": "
+                + e.getMessage());
+    }
+}
+
+private void showOutput() {
+    try {
+        show(new LogFile(sessionPath));
+    } catch (IOException e) {
+        status.setText("Cannot open output: " + e.getMessage());
+    }
+}
+
+/**
+ * Indexes whatever has been added to the log, following its end if the last
+ * line was in view, and continues any search in progress.
+ */
+private void refresh() {
+    if (file == null) {
+        return;
+    }
+    try {
+        int last = lines.getSize() - 1;
+        boolean following = last < 0 || list.getLastVisibleIndex() >= last;
+        if (file.refresh()) {
+            lines.update();
+            if (following && lines.getSize() > 0 && searchText == null) {
+                list.ensureIndexIsVisible(lines.getSize() - 1);
+            }
+        }
+        fitWidth();
+        if (searchText != null) {
+            continueSearch();
+        }
+    } catch (IOException | IllegalStateException e) {
+        status.setText("Cannot read " + file.path() + ": " + e.getMessage());
+    }
+}
+
+/**
+ * Widens the cells to fit the longest line of the log, up to MAX_LINE
+ * characters, or narrows them for a new log.
+ */
+private void fitWidth() {
+    int longest = (int) Math.min(file.longestLine(), MAX_LINE);
+    if (longest != columns) {
+        columns = longest;
+        list.setFixedCellWidth(list.getFontMetrics(list.getFont())
+                .charWidth('x') * (columns + 2));
+    }
+}
+
+/**
+ * Starts searching for the text to find after the selected line.
+ */
+private void findText() {
+    if (file == null || inFind.getText().isEmpty()) {
+        return;
+    }
+    int selected = list.getSelectedIndex();
+    startSearch(inFind.getText(), selected < 0 ? 0
+            : file.offset(selected + 1), false);
+}
+
+/**
+ * Shows the first line of the run, or the header of the generation within
+ * it.
+ */
+private void jump() {
+    if (file == null) {
+        return;
+    }
+    String run = inRun.getText().trim();
+    String generation = inGeneration.getText().trim();
+    long runLine = run.isEmpty() ? 0 : file.runLine(run);
+    if (runLine < 0) {
+        status.setText("Run " + run + " not found");
+        return;
+    }
+    if (generation.isEmpty()) {
+        select(runLine);
+        return;
+    }
+    startSearch((run.isEmpty() ? "" : "Run " + run + " ") + "Generation "
+            + generation, file.offset(runLine), true);
+}
+
+private void startSearch(String text, long from, boolean generation) {
+    searchText = text.getBytes(StandardCharsets.UTF_8);
+    searchFrom = from;
+    searchGeneration = generation;
+    continueSearch();
+}
+
+/**
+ * Searches the next slice of the log, selecting the line of the first match.
+ */
+private void continueSearch() {
+    long found = file.find(searchText, searchFrom, SEARCH_STEP);
+    while (found >= 0 && searchGeneration
+            && Character.isDigit(charAfter(found))) {
+        // Generation 1 matched the start of Generation 10; keep looking
+        found = file.find(searchText, found + 1, SEARCH_STEP);
+    }
+
+    if (found >= 0) {
+        searchText = null;
+        status.setText("");
+        select(file.lineAt(found));
+    } else if (-1 - found >= file.length()) {
+        searchText = null;
+        status.setText("Not found");
+    } else {
+        searchFrom = -1 - found;
+        status.setText("Searching... "
+                + searchFrom * 100 / Math.max(file.length(), 1) + "%");
+    }
+}
+
+/**
+ * @return The character following the match at offset, as a line holds it
+ */
+private char charAfter(long offset) {
+    long line = file.lineAt(offset);
+    int column = (int) (offset - file.offset(line)) + searchText.length;
+    String text = file.line(line, column + 1);
+    return column < text.length() ? text.charAt(column) : ' ';
+}
+
+private void select(long line) {
+    int index = (int) Math.min(line, lines.getSize() - 1);
+    list.setSelectedIndex(index);
+    list.ensureIndexIsVisible(index);
+}
+
+/**
+ * The lines of the log shown, decoded as the list asks for them. Recently
+ * shown lines are cached, as the list asks for each one many times.
+ */
+private final class Lines extends AbstractListModel<String> {
+
+    private static final long serialVersionUID = 1L;
+    private static final int CACHED = 1024;
+
+    private int size;
+    private final Map<Integer, String> cache = new LinkedHashMap<Integer, String>(
+            CACHED, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+            return size() > CACHED;
+        }
+    };
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public String getElementAt(int index) {
+        String line = cache.get(index);
+        if (line == null) {
+            line = file.line(index, MAX_LINE);
+            cache.put(index, line);
+        }
+        return line;
+    }
+
+    /**
+     * Takes in lines the log has gained, and any change to its last line,
+     * which may have been unfinished.
+     */
+    void update() {
+        int newSize = (int) Math.min(file.lineCount(), Integer.MAX_VALUE);
+        if (newSize < size) {
+            reset();
+        }
+        if (size > 0) {
+            cache.remove(size - 1);
+            fireContentsChanged(this, size - 1, size - 1);
+        }
+        if (newSize > size) {
+            int oldSize = size;
+            size = newSize;
+            fireIntervalAdded(this, oldSize, newSize - 1);
+        }
+    }
+
+    void reset() {
+        cache.clear();
+        if (size > 0) {
+            int oldSize = size;
+            size = 0;
+            fireIntervalRemoved(this, 0, oldSize - 1);
+        }
+    }
+}
+
+}
@@ -1,72 +1,272 @@
 package GeneticAlgorithm;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.Arrays;
-import java.util.concurrent.atomic.AtomicInteger;
-import net.objecthunter.exp4j.ExpressionBuilder;
+import java.util.List;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  *
  * @author Sage Ralph <SageJeanRalph@Gmail.com>
  */
-public class Main extends Thread {
+public class Main {
 
-// GUI variables
-public static boolean allowKnownSolution;
-public static double knownMax, knownMin;
-public static int threadCount, runCount,
-        rangeMin, rangeMax, populationSize, maxGenerations, elitism;
-public static double mutationChance;
-public static boolean genDetail, genSummary, runSummary, sigmaScaling;
-public static String fitnessFunction;
+// GUI variables, initially the form's defaults
+public static boolean allowKnownSolution = true;
+public static double knownMax = 4096, knownMin;
+public static int threadCount = 1, runCount = 1, evaluationThreshold = 1024,
+        rangeMin = 1, rangeMax = 64, populationSize = 10,
+        maxGenerations = 10000, elitism = 1;
+public static double mutationChance = 0.01;
+public static boolean genDetail, genSummary, runSummary, sigmaScaling,
+        compileFitness = true;
+public static SelectionMethod selection = SelectionMethod.ROULETTE;
+public static double selectionParameter = Double.NaN;
+public static Long seed; // Random if null
+public static Scheduler scheduler = Scheduler.FIXED;
+public static String fitnessFunction = "x*x";
+public static String sweep; // See ParameterSweep for the format
+public static String islands; // See IslandModel for the format
+public static String logFile; // output() if null or blank
+public static LogSink.Policy logPolicy = LogSink.Policy.BLOCK;
+public static int logCapacity = 1 << 20; // Characters waiting to be written
 
 // Fields
-private static final AtomicInteger simsRun = new AtomicInteger();
-private static int[] bestGenerations;
+private static volatile Consumer<String> destination = System.out::print;
+private static volatile Batch batch;
+private static volatile ParameterSweep parameterSweep;
+private static volatile IslandModel islandModel;
 
 /**
- * The GAs fitness function.
- * @param x The raw value indicated by the chromosome
- * @return The fitness of the chromosome
+ * Writes results and messages to the GUI, or to standard output when there
+ * is none. May be called from any thread.
+ * @param text
  */
-public static double fitnessFunction(double x) {
-    //    double result = x*x;   
+public static void output(String text) {
+    destination.accept(text);
+}
+
+/**
+ * @param destination Receives everything passed to output() from now on
+ */
+public static void setOutput(Consumer<String> destination) {
+    Main.destination = destination;
+}
 
-    net.objecthunter.exp4j.Expression e = new ExpressionBuilder(fitnessFunction)
-            .variables("x")
-            .build()
-            .setVariable("x", x);
-    double result = e.evaluate();
+/**
+ * Builds the settings of a simulation from the GUI variables.
+ * @param fitness The fitness function, memoised over the range
+ * @param log Where the simulation's output goes
+ * @param metrics Where the simulation's timings and counters go
+ * @return The settings
+ * @throws IllegalArgumentException If a setting is invalid
+ */
+public static SimulationConfig config(FitnessCache fitness, LogSink log,
+        Metrics metrics) {
+    return new SimulationConfig(
+            populationSize,
+            maxGenerations,
+            elitism,
+            mutationChance,
+            selection.create(sigmaScaling, selectionParameter),
+            rangeMin,
+            rangeMax,
+            fitness,
+            evaluationThreshold,
+            allowKnownSolution,
+            knownMax,
+            genDetail,
+            genSummary,
+            runSummary,
+            log,
+            metrics);
+}
 
-    return result + knownMin;
+/**
+ * @return A sink writing to logFile, or to output() if there is none
+ * @throws IllegalArgumentException If logFile cannot be opened
+ */
+public static LogSink openLog() {
+    if (logFile == null || logFile.trim().isEmpty()) {
+        return LogSink.output(logCapacity, logPolicy);
+    }
+    try {
+        return LogSink.file(Paths.get(logFile.trim()), logCapacity, logPolicy);
+    } catch (IOException e) {
+        throw new IllegalArgumentException("Cannot open log file "
+                + logFile.trim() + ": " + e.getMessage(), e);
+    }
 }
 
 /**
- * Customise this function to provide a known solution as a stopping point.
- * @param value The calculated fitness value
- * @return Whether value is a known correct solution
+ * Writes out whatever the sink still holds and closes it, reporting any
+ * events it dropped.
+ * @param log
+ * @throws InterruptedException
  */
-public static boolean correctSolution(double value) {
-    return allowKnownSolution && value == knownMax;
+private static void closeLog(LogSink log) throws InterruptedException {
+    try {
+        log.close();
+    } catch (UncheckedIOException e) {
+        output("Writing the log failed: " + e.getCause().getMessage() + "\n");
+    }
+    if (log.dropped() > 0) {
+        output(log.dropped() + " log events dropped\n");
+    }
 }
 
-public static void simulate() throws InterruptedException {
+/**
+ * @return The GUI variables that describe a simulation, as properties text
+ * that applySettings() restores
+ */
+public static String settings() {
+    Properties settings = new Properties();
+    settings.setProperty("populationSize", "" + populationSize);
+    settings.setProperty("maxGenerations", "" + maxGenerations);
+    settings.setProperty("elitism", "" + elitism);
+    settings.setProperty("mutationChance", "" + mutationChance);
+    settings.setProperty("rangeMin", "" + rangeMin);
+    settings.setProperty("rangeMax", "" + rangeMax);
+    settings.setProperty("selection", selection.name());
+    settings.setProperty("selectionParameter", "" + selectionParameter);
+    settings.setProperty("sigmaScaling", "" + sigmaScaling);
+    settings.setProperty("fitnessFunction", fitnessFunction);
+    settings.setProperty("compileFitness", "" + compileFitness);
+    settings.setProperty("evaluationThreshold", "" + evaluationThreshold);
+    settings.setProperty("allowKnownSolution", "" + allowKnownSolution);
+    settings.setProperty("knownMax", "" + knownMax);
+    settings.setProperty("knownMin", "" + knownMin);
+    settings.setProperty("genDetail", "" + genDetail);
+    settings.setProperty("genSummary", "" + genSummary);
+    settings.setProperty("runSummary", "" + runSummary);
 
-    // Setup
-    simsRun.set(0);
-    bestGenerations = new int[runCount];
-    Chromosome.reset();
+    StringWriter text = new StringWriter();
+    try {
+        settings.store(text, null);
+    } catch (IOException e) {
+        throw new IllegalStateException(e); // Not thrown by a StringWriter
+    }
+    return text.toString();
+}
+
+/**
+ * Sets the GUI variables from properties text, as made by settings().
+ * Variables missing from the text keep their current value.
+ * @param text
+ * @throws IllegalArgumentException If a value is invalid
+ */
+public static void applySettings(String text) {
+    Properties settings = new Properties();
+    try {
+        settings.load(new StringReader(text));
+    } catch (IOException e) {
+        throw new IllegalArgumentException(e.getMessage(), e);
+    }
+    applySettings(settings);
+}
+
+private static void applySettings(Properties settings) {
+    populationSize = intSetting(settings, "populationSize", populationSize);
+    maxGenerations = intSetting(settings, "maxGenerations", maxGenerations);
+    elitism = intSetting(settings, "elitism", elitism);
+    mutationChance = doubleSetting(settings, "mutationChance", mutationChance);
+    rangeMin = intSetting(settings, "rangeMin", rangeMin);
+    rangeMax = intSetting(settings, "rangeMax", rangeMax);
+    selection = SelectionMethod.valueOf(settings.getProperty("selection",
+            selection.name()));
+    selectionParameter = doubleSetting(settings, "selectionParameter",
+            selectionParameter);
+    sigmaScaling = booleanSetting(settings, "sigmaScaling", sigmaScaling);
+    fitnessFunction = settings.getProperty("fitnessFunction", fitnessFunction);
+    compileFitness = booleanSetting(settings, "compileFitness", compileFitness);
+    evaluationThreshold = intSetting(settings, "evaluationThreshold",
+            evaluationThreshold);
+    allowKnownSolution = booleanSetting(settings, "allowKnownSolution",
+            allowKnownSolution);
+    knownMax = doubleSetting(settings, "knownMax", knownMax);
+    knownMin = doubleSetting(settings, "knownMin", knownMin);
+    genDetail = booleanSetting(settings, "genDetail", genDetail);
+    genSummary = booleanSetting(settings, "genSummary", genSummary);
+    runSummary = booleanSetting(settings, "runSummary", runSummary);
+}
+
+private static int intSetting(Properties settings, String key, int current) {
+    String value = settings.getProperty(key);
+    return value == null ? current : Integer.parseInt(value.trim());
+}
+
+private static double doubleSetting(Properties settings, String key,
+        double current) {
+    String value = settings.getProperty(key);
+    return value == null ? current : Double.parseDouble(value.trim());
+}
+
+private static boolean booleanSetting(Properties settings, String key,
+        boolean current) {
+    String value = settings.getProperty(key);
+    return value == null ? current : Boolean.parseBoolean(value.trim());
+}
+
+/**
+ * Performs runCount runs of the configuration described by the GUI variables.
+ * @return Whether the runs completed, rather than being cancelled
+ * @throws InterruptedException
+ * @throws IllegalArgumentException If a setting is invalid
+ */
+public static boolean simulate() throws InterruptedException {
+
+    // Derive an independent stream for each run from the master seed, so a
+    // batch is reproducible regardless of which thread performs which run
+    long masterSeed = masterSeed();
+    SplittableRandom master = new SplittableRandom(masterSeed);
 
     long startTime = System.currentTimeMillis();
 
-    // Setup threads and start simulations
-    Main[] threads = new Main[threadCount];
-    for (int i = 0; i < threadCount; i++) {
-        threads[i] = new Main();
-        threads[i].start();
+    // Parse the fitness function once, rather than on every evaluation
+    FitnessFunction compiledFitness = new FitnessFunction(fitnessFunction,
+            knownMin, compileFitness);
+    FitnessCache cache = new FitnessCache(compiledFitness, rangeMin, rangeMax);
+    Metrics metrics = new Metrics();
+    metrics.publish();
+    LogSink log = openLog();
+    List<Batch.Result> results;
+    try {
+        SimulationConfig config = config(cache, log, metrics);
+
+        // Publish the batch before starting it, so a cancel can't be missed
+        Batch current = new Batch(config, runCount, scheduler, threadCount,
+                master);
+        batch = current;
+        current.start();
+        results = current.await();
+    } catch (CancellationException e) {
+        results = null;
+    } finally {
+        batch = null;
+        closeLog(log);
+    }
+    if (results == null) {
+        output("Simulations cancelled\n\n");
+        return false;
     }
 
-    // Wait for simulations to finish
-    for (int i = 0; i < threadCount; i++) {
-        threads[i].join();
+    int[] bestGenerations = new int[runCount];
+    for (int i = 0; i < runCount; i++) {
+        bestGenerations[i] = results.get(i).bestGeneration();
     }
 
     // Process results
@@ -81,37 +281,184 @@ public static void simulate() throws InterruptedException {
     averageBestGen /= runCount;
 
     long timeTaken = System.currentTimeMillis() - startTime;
+    long lookups = cache.lookups();
 
     // Output results
-    GUI.output(""
+    output(""
             + runCount + " Simulations completed in " + timeTaken
-            + "ms using " + threadCount + " threads"
+            + "ms using " + scheduler.describe(threadCount)
+            + ", seed " + masterSeed
             + "\n------------------------------------------"
             + "\nGenerations before completion:\n"
             + Arrays.toString(bestGenerations)
             + "\nAverage: " + averageBestGen + ", Max: " + maxBestGen
+            + "\nFitness lookups: " + lookups + " ("
+            + lookups * 1000 / Math.max(timeTaken, 1) + "/s, "
+            + (compiledFitness.isCompiled() ? "compiled" : "exp4j") + ")"
+            + "\nFitness cache: " + cache.describe()
+            + "\n" + metrics.describe()
             + "\n\n"
     );
+    return true;
 }
 
-@Override
-public void run() {
-    int simNo = simsRun.incrementAndGet(); // Starts at 1
-    while (simNo <= runCount) {
-        bestGenerations[simNo - 1] = new Simulation("" + simNo,
-                rangeMin,
-                rangeMax,
-                populationSize,
-                maxGenerations,
-                elitism,
-                mutationChance,
-                sigmaScaling,
-                genDetail,
-                genSummary,
-                runSummary
-        ).run();
-        simNo = simsRun.incrementAndGet();
+/**
+ * Runs runCount repetitions of every point of the sweep described by sweep,
+ * using the other GUI variables as the base configuration.
+ * @return Whether the sweep completed, rather than being cancelled
+ * @throws InterruptedException
+ * @throws IllegalArgumentException If the sweep or a setting is invalid
+ */
+public static boolean sweep() throws InterruptedException {
+    long masterSeed = masterSeed();
+    SplittableRandom master = new SplittableRandom(masterSeed);
+    long startTime = System.currentTimeMillis();
+
+    FitnessFunction compiledFitness = new FitnessFunction(fitnessFunction,
+            knownMin, compileFitness);
+    FitnessCache cache = new FitnessCache(compiledFitness, rangeMin, rangeMax);
+    Metrics metrics = new Metrics();
+    metrics.publish();
+    LogSink log = openLog();
+    List<ParameterSweep.Result> results;
+    try {
+        SimulationConfig base = config(cache, log, metrics);
+        parameterSweep = ParameterSweep.parse(sweep, populationSize, elitism,
+                mutationChance, sigmaScaling, master.split());
+        results = parameterSweep.run(base, selection, selectionParameter,
+                runCount, scheduler, threadCount, master);
+    } catch (CancellationException e) {
+        results = null;
+    } finally {
+        parameterSweep = null;
+        closeLog(log);
+    }
+    if (results == null) {
+        output("Sweep cancelled\n\n");
+        return false;
     }
+
+    long timeTaken = System.currentTimeMillis() - startTime;
+    long lookups = cache.lookups();
+
+    output(""
+            + results.size() + " configurations x " + runCount
+            + " runs completed in " + timeTaken + "ms using "
+            + scheduler.describe(threadCount) + ", seed " + masterSeed
+            + "\n------------------------------------------\n"
+            + ParameterSweep.table(results)
+            + "Fitness lookups: " + lookups + " ("
+            + lookups * 1000 / Math.max(timeTaken, 1) + "/s, "
+            + (compiledFitness.isCompiled() ? "compiled" : "exp4j") + ")"
+            + "\nFitness cache: " + cache.describe()
+            + "\n" + metrics.describe()
+            + "\n\n"
+    );
+    return true;
+}
+
+/**
+ * Performs runCount runs of the island model described by islands, each
+ * island using the other GUI variables as its configuration.
+ * @return Whether the runs completed, rather than being cancelled or failing
+ * @throws InterruptedException
+ * @throws IllegalArgumentException If the model or a setting is invalid
+ */
+public static boolean islands() throws InterruptedException {
+    long masterSeed = masterSeed();
+    SplittableRandom master = new SplittableRandom(masterSeed);
+    long startTime = System.currentTimeMillis();
+
+    FitnessFunction compiledFitness = new FitnessFunction(fitnessFunction,
+            knownMin, compileFitness);
+    Metrics metrics = new Metrics();
+    metrics.publish();
+    LogSink log = openLog();
+    SimulationConfig config = null;
+    IslandModel model = null;
+    int[] bestGenerations = new int[runCount];
+    String failure = null;
+    try {
+        config = config(new FitnessCache(compiledFitness, rangeMin, rangeMax),
+                log, metrics);
+        model = IslandModel.parse(islands, config);
+        islandModel = model;
+        for (int i = 0; i < runCount; i++) {
+            IslandModel.Result result;
+            if (model.port() > 0) {
+                result = model.runRemote(settings(), master.split());
+            } else {
+                result = model.run("" + (i + 1), scheduler, master.split());
+            }
+            bestGenerations[i] = result.bestGeneration();
+            log.log("Run " + (i + 1) + ": " + model + "\n"
+                    + result.describe() + "\n");
+
+            if (Thread.currentThread().isInterrupted() || islandModel == null) {
+                failure = "Simulations cancelled";
+                break;
+            }
+        }
+    } catch (IOException e) {
+        failure = "Island workers failed: " + e.getMessage();
+    } catch (CancellationException e) {
+        failure = "Simulations cancelled";
+    } finally {
+        islandModel = null;
+        closeLog(log);
+    }
+    if (failure != null) {
+        output(failure + "\n\n");
+        return false;
+    }
+
+    long timeTaken = System.currentTimeMillis() - startTime;
+    long lookups = config.fitnessCache().lookups();
+
+    output(""
+            + runCount + " island model runs completed in " + timeTaken
+            + "ms, seed " + masterSeed
+            + "\n------------------------------------------"
+            + "\nGenerations before completion:\n"
+            + Arrays.toString(bestGenerations)
+            + "\nAverage: " + Arrays.stream(bestGenerations).sum() / runCount
+            + ", Max: " + Arrays.stream(bestGenerations).max().getAsInt()
+            + (model.port() > 0 ? "\nFitness evaluated by island workers"
+                    : "\nFitness lookups: " + lookups + " ("
+                    + lookups * 1000 / Math.max(timeTaken, 1) + "/s, "
+                    + (compiledFitness.isCompiled() ? "compiled" : "exp4j") + ")"
+                    + "\nFitness cache: " + config.fitnessCache().describe()
+                    + "\n" + metrics.describe())
+            + "\n\n"
+    );
+    return true;
+}
+
+/**
+ * Cancels the batch, sweep or island model in progress, if any. May be called
+ * from any thread.
+ */
+public static void cancel() {
+    Batch current = batch;
+    if (current != null) {
+        current.cancel();
+    }
+    ParameterSweep currentSweep = parameterSweep;
+    if (currentSweep != null) {
+        currentSweep.cancel();
+    }
+    IslandModel model = islandModel;
+    if (model != null) {
+        islandModel = null;
+        model.cancel();
+    }
+}
+
+/**
+ * @return The seed provided, or a random one if none was
+ */
+private static long masterSeed() {
+    return seed != null ? seed : ThreadLocalRandom.current().nextLong();
 }
 
 /**
@@ -119,82 +466,208 @@ public void run() {
  * Command-line Interface
  * *****************************************************************************
  */
-///**
-// * @param args the command line arguments
-// * @throws java.lang.InterruptedException
-// */
-//public static void main(String[] args) throws InterruptedException, IOException {
-//    promptForSettings();
-//
-//}
-//
-//private static void promptForSettings() throws InterruptedException, IOException {
-//
-//    describeParameters();
-//    
-//    Scanner in = new Scanner(System.in);
-//    int menuOption;
-//    do {
-//
-//        // User selection
-//        menuOption = in.nextInt();
-//        switch (menuOption) {
-//            case 1:
-//                runCount = in.nextInt();
-//                System.out.println("Run count = "+runCount);
-//                break;
-//            case 2:
-//                populationSize = in.nextInt();
-//                System.out.println("Population size = "+populationSize);
-//                break;
-//            case 3:
-//                maxGenerations = in.nextInt();
-//                System.out.println("Max generations = "+maxGenerations);
-//                break;
-//            case 4:
-//                mutationChance = in.nextDouble() / 100;
-//                System.out.println("Mutation chance = "+mutationChance*100+"%");
-//                break;
-//            case 5:
-//                elitism = in.nextInt();
-//                System.out.println("Elitism = "+elitism);
-//                break;
-//            case 6:
-//                rangeMin = in.nextInt();
-//                System.out.println("Range = [" + rangeMin + ", " + rangeMax + "]");
-//                break;
-//            case 7:
-//                rangeMax = in.nextInt();
-//                System.out.println("Range = [" + rangeMin + ", " + rangeMax + "]");
-//                break;
-//            case 0:
-//                simulate();
-//                System.out.println("Press enter to continue,"
-//                        + "\ntype menu for options");
-//                String entry = in.nextLine();
-//                if (entry.equals("menu")) {
-//                    describeParameters();
-//                }
-//                break;
-//            default:
-//                break;
-//        }
-//    } while (menuOption != -1);
-//}
-//
-//private static void describeParameters() {
-//    System.out.println("\n"
-//            + "\nEnter number code followed by value to "
-//            + "\nmodify settings. Enter 0 to run or -1 to exit"
-//            + "\n----------------------------------------------"
-//            + "\n1:   Total run count = " + runCount
-//            + "\n2:   Population size = " + populationSize
-//            + "\n3:   Max generations (per run) = " + maxGenerations
-//            + "\n4:   Mutation chance (per bit) = " + mutationChance * 100 + "%"
-//            + "\n5:   Elitism (Chromosomes preserved between generations) = "
-//            + elitism
-//            + "\n6|7: Range [" + rangeMin + ", " + rangeMax + "]"
-//            + "\n"
-//    );
-//}
+// Settings that choose what is run, besides those of settings()
+private static final List<String> RUN_KEYS = Arrays.asList("runCount",
+        "threadCount", "seed", "scheduler", "sweep", "islands", "worker",
+        "logFile", "logPolicy", "logCapacity", "output");
+
+private static final String USAGE = ""
+        + "Usage: java GeneticAlgorithm.Main [file | key=value]...\n"
+        + "Files hold settings in properties format, as key=value lines;\n"
+        + "later settings replace earlier ones. Keys:\n"
+        + "  populationSize, maxGenerations, elitism, mutationChance,\n"
+        + "  rangeMin, rangeMax, selection, selectionParameter, sigmaScaling,\n"
+        + "  fitnessFunction, compileFitness, evaluationThreshold,\n"
+        + "  allowKnownSolution, knownMax, knownMin, genDetail, genSummary,\n"
+        + "  runSummary, runCount, threadCount (default: one per processor),\n"
+        + "  seed, scheduler\n"
+        + "  selection   " + names(SelectionMethod.values()) + "\n"
+        + "  scheduler   " + names(Scheduler.values()) + "\n"
+        + "  sweep       Run a parameter sweep, as in \"pop=10,20; elitism=0,1\"\n"
+        + "  islands     Run an island model, as in \"islands=4; interval=10\"\n"
+        + "  worker      Host islands for a coordinator, as host:port[:islands]\n"
+        + "  logFile     Write the log there rather than standard output\n"
+        + "  logPolicy   BLOCK or DROP log output when the log falls behind\n"
+        + "  logCapacity Characters of log held waiting to be written\n"
+        + "  output      Write results there rather than standard output\n"
+        + "Exit status: 0 if the runs completed, 1 if they failed or were\n"
+        + "cancelled, 2 if the settings are invalid. Interrupting the process\n"
+        + "cancels the runs, still writing the log and results.\n";
+
+/**
+ * @param values The constants of an enum
+ * @return Their names, as accepted in settings
+ */
+private static String names(Enum<?>[] values) {
+    return Arrays.stream(values).map(Enum::name)
+            .collect(Collectors.joining(", "));
+}
+
+/**
+ * Runs simulations without the GUI, and without loading AWT or Swing, so
+ * batches can be scripted and run on headless machines. See USAGE for the
+ * arguments.
+ * @param args Settings files and key=value settings, applied in order
+ */
+public static void main(String[] args) {
+    System.exit(runCommandLine(args));
+}
+
+/**
+ * @param args As for main()
+ * @return The exit status
+ */
+private static int runCommandLine(String[] args) {
+    Properties settings = new Properties();
+    threadCount = Runtime.getRuntime().availableProcessors();
+    try {
+        for (String arg : args) {
+            if (arg.equals("-h") || arg.equals("--help")) {
+                System.out.print(USAGE);
+                return 0;
+            }
+            int equals = arg.indexOf('=');
+            if (equals > 0) {
+                settings.setProperty(arg.substring(0, equals).trim(),
+                        arg.substring(equals + 1));
+            } else {
+                try (Reader in = Files.newBufferedReader(Paths.get(arg),
+                        StandardCharsets.UTF_8)) {
+                    settings.load(in);
+                }
+            }
+        }
+        applyCommandLine(settings);
+    } catch (IOException e) {
+        System.err.println("Cannot read settings file " + e.getMessage());
+        return 2;
+    } catch (IllegalArgumentException e) {
+        System.err.println(e.getMessage() + "\n");
+        System.err.print(USAGE);
+        return 2;
+    }
+
+    // Let Ctrl+C cancel the runs, so the log and results are still written
+    CountDownLatch done = new CountDownLatch(1);
+    Thread hook = new Thread(() -> {
+        cancel();
+        try {
+            done.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            // Exit regardless
+        }
+    }, "Cancel on shutdown");
+    Runtime.getRuntime().addShutdownHook(hook);
+
+    String results = settings.getProperty("output", "").trim();
+    PrintStream out = System.out;
+    try {
+        if (!results.isEmpty()) {
+            out = new PrintStream(Files.newOutputStream(Paths.get(results)),
+                    false, "UTF-8");
+            setOutput(out::print);
+        }
+        boolean completed = run(settings.getProperty("worker", "").trim());
+        out.flush();
+        if (out.checkError()) {
+            System.err.println("Cannot write results to " + results);
+            return 1;
+        }
+        return completed ? 0 : 1;
+    } catch (IllegalArgumentException e) {
+        System.err.println(e.getMessage());
+        return 2;
+    } catch (IOException e) {
+        System.err.println("Cannot write results to " + results + ": "
+                + e.getMessage());
+        return 1;
+    } catch (InterruptedException | RuntimeException e) {
+        System.err.println("Simulations failed: " + e);
+        return 1;
+    } finally {
+        if (out != System.out) {
+            out.close();
+        }
+        done.countDown();
+        try {
+            Runtime.getRuntime().removeShutdownHook(hook);
+        } catch (IllegalStateException e) {
+            // Already shutting down
+        }
+    }
+}
+
+/**
+ * Sets the GUI variables from command-line settings. The selection parameter
+ * defaults to the selection method's own.
+ * @param settings
+ * @throws IllegalArgumentException If a setting is unknown or invalid
+ */
+private static void applyCommandLine(Properties settings) {
+    Properties known = new Properties();
+    try {
+        known.load(new StringReader(settings()));
+    } catch (IOException e) {
+        throw new IllegalStateException(e); // Not thrown by a StringReader
+    }
+    for (String key : settings.stringPropertyNames()) {
+        if (!known.containsKey(key) && !RUN_KEYS.contains(key)) {
+            throw new IllegalArgumentException("Unknown setting " + key);
+        }
+    }
+
+    applySettings(settings);
+    if (!settings.containsKey("selectionParameter")) {
+        selectionParameter = selection.defaultParameter();
+    }
+    runCount = intSetting(settings, "runCount", runCount);
+    threadCount = intSetting(settings, "threadCount", threadCount);
+    String seedText = settings.getProperty("seed", "").trim();
+    seed = seedText.isEmpty() ? null : Long.valueOf(seedText);
+    scheduler = Scheduler.valueOf(settings.getProperty("scheduler",
+            scheduler.name()).trim());
+    sweep = settings.getProperty("sweep", "");
+    islands = settings.getProperty("islands", "");
+    logFile = settings.getProperty("logFile", "");
+    logPolicy = LogSink.Policy.valueOf(settings.getProperty("logPolicy",
+            logPolicy.name()).trim());
+    logCapacity = intSetting(settings, "logCapacity", logCapacity);
+
+    if (!sweep.trim().isEmpty() && !islands.trim().isEmpty()) {
+        throw new IllegalArgumentException(
+                "Choose either a sweep or an island model");
+    }
+    if (runCount < 1 || threadCount < 1) {
+        throw new IllegalArgumentException(
+                "Run count and thread count must be at least 1");
+    }
+}
+
+/**
+ * Runs what the GUI variables describe: a sweep, an island model or a batch.
+ * @param worker The coordinator to host islands for, as host:port[:islands],
+ * instead; blank for none
+ * @return Whether the runs completed, or every island was hosted
+ * @throws InterruptedException
+ * @throws IllegalArgumentException If a setting is invalid
+ */
+private static boolean run(String worker) throws InterruptedException {
+    if (!worker.isEmpty()) {
+        String[] address = worker.split(":");
+        if (address.length < 2 || address.length > 3) {
+            throw new IllegalArgumentException(
+                    "A worker needs a coordinator as host:port[:islands]");
+        }
+        return IslandWorker.serve(address[0], Integer.parseInt(address[1]),
+                address.length > 2 ? Integer.parseInt(address[2]) : 1);
+    }
+    if (!sweep.trim().isEmpty()) {
+        return sweep();
+    }
+    if (!islands.trim().isEmpty()) {
+        return islands();
+    }
+    return simulate();
+}
+
 }
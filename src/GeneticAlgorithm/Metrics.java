@@ -0,0 +1,164 @@
+package GeneticAlgorithm;
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Counters and phase timings shared by every run of a batch, and reported in
+ * its summary. Counters are LongAdders, so threads rarely contend over them,
+ * and they are only touched when something noteworthy happens. Phases are
+ * timed in every Simulation.TIMING_INTERVAL-th generation of a run. The latest
+ * batch's metrics are published over JMX as GeneticAlgorithm:type=Metrics.
+ * @author Sage Ralph <SageJeanRalph@Gmail.com>
+ */
+public class Metrics implements MetricsMXBean {
+
+private static final String NAME = "GeneticAlgorithm:type=Metrics";
+
+private final PhaseTimer generation = new PhaseTimer("Generation");
+private final PhaseTimer elitism = new PhaseTimer("Elitism");
+private final PhaseTimer selection = new PhaseTimer("Selection");
+private final PhaseTimer mating = new PhaseTimer("Mating");
+private final PhaseTimer mutation = new PhaseTimer("Mutation");
+private final PhaseTimer evaluation = new PhaseTimer("Evaluation");
+private final LongAdder excludedCrossoverPoints = new LongAdder();
+private final LongAdder mutationRepairs = new LongAdder();
+private final LongAdder clones = new LongAdder();
+private final Set<FitnessCache> caches = new CopyOnWriteArraySet<>();
+
+/**
+ * Publishes these metrics over JMX, replacing those of any earlier batch.
+ * Failure to publish is not fatal; the metrics are still collected.
+ * @return Whether the metrics were published
+ */
+public boolean publish() {
+    try {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(NAME);
+        synchronized (Metrics.class) {
+            try {
+                server.unregisterMBean(name);
+            } catch (InstanceNotFoundException e) {
+                // Nothing published yet
+            }
+            server.registerMBean(this, name);
+        }
+        return true;
+    } catch (JMException | SecurityException e) {
+        return false;
+    }
+}
+
+/**
+ * Includes a fitness cache's hits and misses in these metrics.
+ * @param cache
+ */
+public void watch(FitnessCache cache) {
+    caches.add(cache);
+}
+
+@Override
+public PhaseTimer getGeneration() {
+    return generation;
+}
+
+@Override
+public PhaseTimer getElitism() {
+    return elitism;
+}
+
+@Override
+public PhaseTimer getSelection() {
+    return selection;
+}
+
+@Override
+public PhaseTimer getMating() {
+    return mating;
+}
+
+@Override
+public PhaseTimer getMutation() {
+    return mutation;
+}
+
+@Override
+public PhaseTimer getEvaluation() {
+    return evaluation;
+}
+
+/**
+ * @param count Crossover points passed over because a child would have left
+ * the range
+ */
+public void crossoverPointsExcluded(int count) {
+    excludedCrossoverPoints.add(count);
+}
+
+public void mutationRepaired() {
+    mutationRepairs.increment();
+}
+
+/**
+ * @param count Parents copied unchanged into the next generation
+ */
+public void cloned(int count) {
+    clones.add(count);
+}
+
+@Override
+public long getExcludedCrossoverPoints() {
+    return excludedCrossoverPoints.sum();
+}
+
+@Override
+public long getMutationRepairs() {
+    return mutationRepairs.sum();
+}
+
+@Override
+public long getClones() {
+    return clones.sum();
+}
+
+@Override
+public long getFitnessCacheHits() {
+    long hits = 0;
+    for (FitnessCache cache : caches) {
+        hits += cache.hits();
+    }
+    return hits;
+}
+
+@Override
+public long getFitnessCacheMisses() {
+    long misses = 0;
+    for (FitnessCache cache : caches) {
+        misses += cache.misses();
+    }
+    return misses;
+}
+
+/**
+ * @return The phase timings and counters, for a batch summary
+ */
+public String describe() {
+    StringBuilder text = new StringBuilder("Phase times, sampled every ")
+            .append(Simulation.TIMING_INTERVAL).append(" generations:");
+    for (PhaseTimer phase : new PhaseTimer[]{generation, elitism, selection,
+        mating, mutation, evaluation}) {
+        text.append("\n  ").append(phase.describe());
+    }
+    return text.append("\nExcluded crossover points: ")
+            .append(getExcludedCrossoverPoints())
+            .append(", mutation repairs: ").append(getMutationRepairs())
+            .append(", clones: ").append(getClones())
+            .toString();
+}
+
+}
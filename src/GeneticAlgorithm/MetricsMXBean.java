@@ -0,0 +1,44 @@
+package GeneticAlgorithm;
+
+/**
+ * The metrics of the latest batch, as published over JMX by Metrics. Phase
+ * times appear as composite values holding each phase's count, mean,
+ * percentiles and histogram; they are sampled, so counts are of the
+ * generations timed.
+ * @author Sage Ralph <SageJeanRalph@Gmail.com>
+ */
+public interface MetricsMXBean {
+
+PhaseTimer getGeneration();
+
+PhaseTimer getElitism();
+
+PhaseTimer getSelection();
+
+PhaseTimer getMating();
+
+PhaseTimer getMutation();
+
+PhaseTimer getEvaluation();
+
+/**
+ * @return Crossover points passed over because a child would have left the
+ * range
+ */
+long getExcludedCrossoverPoints();
+
+/**
+ * @return Mutations that left the range and were repaired
+ */
+long getMutationRepairs();
+
+/**
+ * @return Parents copied unchanged for want of a distinct mate
+ */
+long getClones();
+
+long getFitnessCacheHits();
+
+long getFitnessCacheMisses();
+
+}
@@ -0,0 +1,42 @@
+package GeneticAlgorithm;
+
+/**
+ * Members sent from one population to another: their genes, and their
+ * fitness so the receiver need not evaluate them again. Immutable, so one
+ * Migration may be handed to several populations.
+ * @author Sage Ralph <SageJeanRalph@Gmail.com>
+ */
+public final class Migration {
+
+private final long[] genes;
+private final double[] fitness;
+
+/**
+ * @param genes The genes of each migrant
+ * @param fitness The fitness of each migrant
+ */
+public Migration(long[] genes, double[] fitness) {
+    if (genes.length != fitness.length) {
+        throw new IllegalArgumentException(genes.length + " migrants but "
+                + fitness.length + " fitness values");
+    }
+    this.genes = genes.clone();
+    this.fitness = fitness.clone();
+}
+
+/**
+ * @return The number of migrants
+ */
+public int size() {
+    return genes.length;
+}
+
+public long genes(int i) {
+    return genes[i];
+}
+
+public double fitness(int i) {
+    return fitness[i];
+}
+
+}
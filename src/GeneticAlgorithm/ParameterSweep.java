@@ -0,0 +1,425 @@
+package GeneticAlgorithm;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs many repetitions of many configurations on a shared thread pool and
+ * tabulates the results. Points are taken as a grid over lists of values, or
+ * sampled at random or by Latin hypercube from the bounds of those lists.
+ *
+ * A sweep is described by a spec such as
+ * "pop=10,20,40; elitism=0,1; mutation=0.001,0.01; sigma=false,true; sample=grid"
+ * where sample is grid, random:N or lhs:N. Parameters left out keep the
+ * value they would have in a normal run.
+ * @author Sage Ralph <SageJeanRalph@Gmail.com>
+ */
+public class ParameterSweep {
+
+public enum Sampling {
+    GRID, RANDOM, LATIN_HYPERCUBE
+}
+
+private final List<Point> points;
+private volatile List<Simulation> simulations = Collections.emptyList();
+private volatile List<Future<Void>> running = Collections.emptyList();
+private volatile boolean cancelled;
+
+public ParameterSweep(List<Point> points) {
+    this.points = points;
+}
+
+/**
+ * Parses a sweep spec.
+ * @param spec The spec, as described above
+ * @param populationSize Used if the spec does not list population sizes
+ * @param elitism Used if the spec does not list elitism values
+ * @param mutationChance Used if the spec does not list mutation chances
+ * @param sigmaScaling Used if the spec does not list sigma scaling values
+ * @param random The source of randomness for sampled points
+ * @return The sweep
+ * @throws IllegalArgumentException If the spec is invalid
+ */
+public static ParameterSweep parse(String spec, int populationSize,
+        int elitism, double mutationChance, boolean sigmaScaling,
+        SplittableRandom random) {
+    int[] populationSizes = {populationSize};
+    int[] elitisms = {elitism};
+    double[] mutationChances = {mutationChance};
+    boolean[] sigmaScalings = {sigmaScaling};
+    Sampling sampling = Sampling.GRID;
+    int count = 0;
+
+    for (String part : spec.split(";")) {
+        if (part.trim().isEmpty()) {
+            continue;
+        }
+        String[] keyValue = part.split("=", 2);
+        if (keyValue.length != 2) {
+            throw new IllegalArgumentException("Sweep parameter " + part.trim()
+                    + " has no values");
+        }
+        String key = keyValue[0].trim();
+        String[] values = keyValue[1].split(",");
+        for (int i = 0; i < values.length; i++) {
+            values[i] = values[i].trim();
+        }
+
+        switch (key) {
+            case "pop":
+                populationSizes = Arrays.stream(values)
+                        .mapToInt(Integer::parseInt).toArray();
+                break;
+            case "elitism":
+                elitisms = Arrays.stream(values)
+                        .mapToInt(Integer::parseInt).toArray();
+                break;
+            case "mutation":
+                mutationChances = Arrays.stream(values)
+                        .mapToDouble(Double::parseDouble).toArray();
+                break;
+            case "sigma":
+                sigmaScalings = new boolean[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    sigmaScalings[i] = Boolean.parseBoolean(values[i]);
+                }
+                break;
+            case "sample":
+                String[] method = values[0].split(":", 2);
+                if (method[0].equals("grid")) {
+                    sampling = Sampling.GRID;
+                } else if (method[0].equals("random")) {
+                    sampling = Sampling.RANDOM;
+                } else if (method[0].equals("lhs")) {
+                    sampling = Sampling.LATIN_HYPERCUBE;
+                } else {
+                    throw new IllegalArgumentException("Unknown sampling "
+                            + values[0] + ", expected grid, random:N or lhs:N");
+                }
+                if (sampling != Sampling.GRID) {
+                    if (method.length != 2) {
+                        throw new IllegalArgumentException("Sampling "
+                                + values[0] + " needs a point count");
+                    }
+                    count = Integer.parseInt(method[1].trim());
+                    if (count < 1) {
+                        throw new IllegalArgumentException("Sampling "
+                                + values[0] + " needs at least 1 point");
+                    }
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown sweep parameter "
+                        + key + ", expected pop, elitism, mutation, sigma "
+                        + "or sample");
+        }
+    }
+
+    return new ParameterSweep(points(sampling, count, populationSizes,
+            elitisms, mutationChances, sigmaScalings, random));
+}
+
+/**
+ * Chooses the points of a sweep. A grid takes every combination of the
+ * values provided, skipping those with more elites than members. Random and
+ * Latin hypercube sampling draw count points from between the lowest and
+ * highest value of each list, with elitism capped at the population size.
+ * @param sampling How to choose points
+ * @param count The number of points to sample, ignored by a grid
+ * @param populationSizes
+ * @param elitisms
+ * @param mutationChances
+ * @param sigmaScalings
+ * @param random The source of randomness, unused by a grid
+ * @return The points
+ */
+public static List<Point> points(Sampling sampling, int count,
+        int[] populationSizes, int[] elitisms, double[] mutationChances,
+        boolean[] sigmaScalings, SplittableRandom random) {
+    List<Point> points = new ArrayList<>();
+
+    if (sampling == Sampling.GRID) {
+        for (int populationSize : populationSizes) {
+            for (int elitism : elitisms) {
+                for (double mutationChance : mutationChances) {
+                    for (boolean sigmaScaling : sigmaScalings) {
+                        if (elitism <= populationSize) {
+                            points.add(new Point(populationSize, elitism,
+                                    mutationChance, sigmaScaling));
+                        }
+                    }
+                }
+            }
+        }
+        return points;
+    }
+
+    // Each parameter gets its own column of positions in [0, 1)
+    boolean stratified = sampling == Sampling.LATIN_HYPERCUBE;
+    double[] pop = unitSamples(count, stratified, random);
+    double[] elite = unitSamples(count, stratified, random);
+    double[] mutation = unitSamples(count, stratified, random);
+    double[] sigma = unitSamples(count, stratified, random);
+
+    int minPop = Arrays.stream(populationSizes).min().getAsInt();
+    int maxPop = Arrays.stream(populationSizes).max().getAsInt();
+    int minElite = Arrays.stream(elitisms).min().getAsInt();
+    int maxElite = Arrays.stream(elitisms).max().getAsInt();
+    double minMutation = Arrays.stream(mutationChances).min().getAsDouble();
+    double maxMutation = Arrays.stream(mutationChances).max().getAsDouble();
+
+    for (int i = 0; i < count; i++) {
+        int populationSize = minPop
+                + (int) (pop[i] * ((long) maxPop - minPop + 1));
+        int elitism = minElite
+                + (int) (elite[i] * ((long) maxElite - minElite + 1));
+        double mutationChance = minMutation
+                + mutation[i] * (maxMutation - minMutation);
+        boolean sigmaScaling
+                = sigmaScalings[(int) (sigma[i] * sigmaScalings.length)];
+        points.add(new Point(populationSize,
+                Math.min(elitism, populationSize), mutationChance,
+                sigmaScaling));
+    }
+    return points;
+}
+
+/**
+ * @param count
+ * @param stratified Whether to place exactly one sample in each of count
+ * equal strata, in random order
+ * @param random The source of randomness
+ * @return count positions in [0, 1)
+ */
+private static double[] unitSamples(int count, boolean stratified,
+        SplittableRandom random) {
+    double[] samples = new double[count];
+    for (int i = 0; i < count; i++) {
+        samples[i] = stratified
+                ? (i + random.nextDouble()) / count
+                : random.nextDouble();
+    }
+
+    if (stratified) {
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            double swap = samples[i];
+            samples[i] = samples[j];
+            samples[j] = swap;
+        }
+    }
+    return samples;
+}
+
+public List<Point> points() {
+    return points;
+}
+
+/**
+ * Runs every point runCount times. Runs are queued one repetition at a time
+ * across all points, so every point starts its first run before any starts
+ * its second and a slow point cannot hold the rest back.
+ * @param base The settings shared by every point
+ * @param selection
+ * @param selectionParameter
+ * @param runCount Repetitions of each point
+ * @param scheduler How runs are scheduled onto threads
+ * @param threadCount The number of threads, for pooled schedulers
+ * @param random The source of randomness, split into a stream for each run
+ * @return The results of each point, in the order of points()
+ * @throws InterruptedException
+ * @throws java.util.concurrent.CancellationException If the sweep was
+ * cancelled
+ */
+public List<Result> run(SimulationConfig base, SelectionMethod selection,
+        double selectionParameter, int runCount, Scheduler scheduler,
+        int threadCount, SplittableRandom random) throws InterruptedException {
+    List<Result> results = new ArrayList<>();
+    for (Point point : points) {
+        SimulationConfig config = base.withParameters(point.populationSize,
+                point.elitism, point.mutationChance,
+                selection.create(point.sigmaScaling, selectionParameter));
+        results.add(new Result(point, config, runCount));
+    }
+
+    // Interleave points, one repetition at a time
+    List<Simulation> created = new ArrayList<>();
+    List<Callable<Void>> runs = new ArrayList<>();
+    for (int r = 0; r < runCount; r++) {
+        for (int p = 0; p < results.size(); p++) {
+            Result result = results.get(p);
+            int repetition = r;
+            Simulation simulation = new Simulation((p + 1) + "." + (r + 1),
+                    result.config, random.split());
+            created.add(simulation);
+            runs.add(() -> {
+                result.run(simulation, repetition);
+                return null;
+            });
+        }
+    }
+    simulations = created;
+
+    ExecutorService pool = scheduler.create(threadCount);
+    List<Future<Void>> futures = new ArrayList<>();
+    try {
+        for (Callable<Void> run : runs) {
+            futures.add(pool.submit(run));
+        }
+        running = futures;
+        if (cancelled) {
+            cancel();
+        }
+        for (Future<Void> run : futures) {
+            run.get();
+        }
+    } catch (ExecutionException e) {
+        cancel();
+        if (e.getCause() instanceof RuntimeException) {
+            throw (RuntimeException) e.getCause();
+        }
+        throw new IllegalStateException(e.getCause());
+    } catch (InterruptedException e) {
+        cancel();
+        throw e;
+    } finally {
+        pool.shutdownNow();
+
+        // Not every scheduler interrupts runs in progress, so wait for them
+        // to stop, lest they go on logging after the sweep has returned
+        pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        running = Collections.emptyList();
+        simulations = Collections.emptyList();
+    }
+    return results;
+}
+
+/**
+ * Stops the sweep in progress: runs not yet started are abandoned and those
+ * running stop at the end of their current generation. May be called from
+ * any thread.
+ */
+public void cancel() {
+    cancelled = true;
+    for (Simulation simulation : simulations) {
+        simulation.cancel();
+    }
+    for (Future<Void> run : running) {
+        run.cancel(true);
+    }
+}
+
+/**
+ * @param results The results of a sweep
+ * @return A table with a row for each point
+ */
+public static String table(List<Result> results) {
+    StringBuilder table = new StringBuilder(String.format(
+            "%5s %10s %8s %10s %6s | %8s %8s %7s %14s %10s %10s%n",
+            "Point", "Population", "Elitism", "Mutation", "Sigma",
+            "Avg gen", "Max gen", "Solved", "Best fitness", "Avg ms",
+            "Total ms"));
+    int n = 1;
+    for (Result r : results) {
+        Point p = r.point;
+        table.append(String.format(
+                "%5d %10d %8d %10.5f %6s | %8.1f %8d %7s %14.6g %10.1f %10.1f%n",
+                n++, p.populationSize, p.elitism, p.mutationChance,
+                p.sigmaScaling, r.averageGeneration(), r.maxGeneration(),
+                r.solved() + "/" + r.generations.length, r.bestFitness(),
+                r.totalMillis() / r.generations.length, r.totalMillis()));
+    }
+    return table.toString();
+}
+
+/**
+ * One combination of the swept parameters.
+ */
+public static final class Point {
+
+    final int populationSize, elitism;
+    final double mutationChance;
+    final boolean sigmaScaling;
+
+    public Point(int populationSize, int elitism, double mutationChance,
+            boolean sigmaScaling) {
+        this.populationSize = populationSize;
+        this.elitism = elitism;
+        this.mutationChance = mutationChance;
+        this.sigmaScaling = sigmaScaling;
+    }
+
+    @Override
+    public String toString() {
+        return "pop=" + populationSize + "; elitism=" + elitism
+                + "; mutation=" + mutationChance + "; sigma=" + sigmaScaling;
+    }
+}
+
+/**
+ * The outcome of every repetition of a Point. Each repetition writes only
+ * its own slot of each array.
+ */
+public static final class Result {
+
+    final Point point;
+    final SimulationConfig config;
+    final int[] generations;
+    final double[] bestFitness;
+    final long[] nanos;
+
+    Result(Point point, SimulationConfig config, int runCount) {
+        this.point = point;
+        this.config = config;
+        generations = new int[runCount];
+        bestFitness = new double[runCount];
+        nanos = new long[runCount];
+    }
+
+    void run(Simulation simulation, int repetition) {
+        long start = System.nanoTime();
+        generations[repetition] = simulation.run();
+        bestFitness[repetition] = simulation.bestFitness();
+        nanos[repetition] = System.nanoTime() - start;
+    }
+
+    public Point point() {
+        return point;
+    }
+
+    public double averageGeneration() {
+        return Arrays.stream(generations).average().orElse(Double.NaN);
+    }
+
+    public int maxGeneration() {
+        return Arrays.stream(generations).max().orElse(0);
+    }
+
+    /**
+     * @return The number of repetitions that reached the known solution
+     */
+    public int solved() {
+        return (int) Arrays.stream(bestFitness)
+                .filter(config::correctSolution).count();
+    }
+
+    public double bestFitness() {
+        return Arrays.stream(bestFitness).max().orElse(Double.NaN);
+    }
+
+    /**
+     * @return Wall time summed over every repetition
+     */
+    public double totalMillis() {
+        return Arrays.stream(nanos).sum() / 1e6;
+    }
+}
+
+}
@@ -0,0 +1,128 @@
+package GeneticAlgorithm;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Times one phase of evolution across every run of a batch. Durations are
+ * counted into a histogram of power of 2 buckets, so recording costs a few
+ * uncontended additions however many threads are timing the phase, and
+ * percentiles are accurate to within a factor of 2.
+ * @author Sage Ralph <SageJeanRalph@Gmail.com>
+ */
+public class PhaseTimer {
+
+// Bucket i counts durations below 2^i ns that are at least 2^(i-1) ns;
+// bucket 0 counts durations of 0
+private static final int BUCKETS = 64;
+
+private final String name;
+private final LongAdder[] buckets = new LongAdder[BUCKETS];
+private final LongAdder total = new LongAdder();
+private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+/**
+ * @param name The phase, as shown in summaries
+ */
+public PhaseTimer(String name) {
+    this.name = name;
+    for (int i = 0; i < BUCKETS; i++) {
+        buckets[i] = new LongAdder();
+    }
+}
+
+/**
+ * Records a duration ending now.
+ * @param start When the phase began, as from System.nanoTime()
+ * @return The time now, so consecutive phases can be timed with one call
+ * each
+ */
+public long stop(long start) {
+    long now = System.nanoTime();
+    long nanos = Math.max(0, now - start);
+    buckets[64 - Long.numberOfLeadingZeros(nanos)].increment();
+    total.add(nanos);
+    max.accumulate(nanos);
+    return now;
+}
+
+public String getName() {
+    return name;
+}
+
+/**
+ * @return The number of durations recorded
+ */
+public long getCount() {
+    long count = 0;
+    for (LongAdder bucket : buckets) {
+        count += bucket.sum();
+    }
+    return count;
+}
+
+public long getTotalNanos() {
+    return total.sum();
+}
+
+public long getMeanNanos() {
+    long count = getCount();
+    return count == 0 ? 0 : getTotalNanos() / count;
+}
+
+public long getMaxNanos() {
+    return max.get();
+}
+
+public long getMedianNanos() {
+    return percentile(0.5);
+}
+
+public long getP99Nanos() {
+    return percentile(0.99);
+}
+
+/**
+ * @return The count of each bucket; bucket i holds durations of at least
+ * 2^(i-1) ns and below 2^i ns
+ */
+public long[] getHistogram() {
+    long[] counts = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+        counts[i] = buckets[i].sum();
+    }
+    return counts;
+}
+
+/**
+ * @param fraction Between 0 and 1
+ * @return The upper bound of the bucket containing that fraction of the
+ * durations, or 0 if none have been recorded
+ */
+private long percentile(double fraction) {
+    long[] counts = getHistogram();
+    long count = 0;
+    for (long bucket : counts) {
+        count += bucket;
+    }
+    long rank = (long) Math.ceil(count * fraction);
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+        seen += counts[i];
+        if (seen >= rank && seen > 0) {
+            return Math.min(getMaxNanos(), i == 0 ? 0 : (1L << i) - 1);
+        }
+    }
+    return 0;
+}
+
+/**
+ * @return The phase's count and times, for a batch summary
+ */
+public String describe() {
+    return String.format("%-10s %9d x  mean %9.1fus  p50 %9.1fus"
+            + "  p99 %9.1fus  max %9.1fus", name, getCount(),
+            getMeanNanos() / 1e3, getMedianNanos() / 1e3,
+            getP99Nanos() / 1e3, getMaxNanos() / 1e3);
+}
+
+}
@@ -0,0 +1,27 @@
+package GeneticAlgorithm;
+
+/**
+ * Base for strategies which select members in proportion to their (optionally
+ * sigma scaled) fitness.
+ * @author Sage Ralph <SageJeanRalph@Gmail.com>
+ */
+public abstract class ProportionalSelection implements SelectionStrategy {
+
+private final boolean sigmaScaling;
+
+/**
+ * @param sigmaScaling Whether to apply sigma scaling to fitness
+ */
+protected ProportionalSelection(boolean sigmaScaling) {
+    this.sigmaScaling = sigmaScaling;
+}
+
+/**
+ * @param population The current population
+ * @return The relative likelihood of each member being selected
+ */
+public double[] weights(Generation population) {
+    return population.getFitnessArray(sigmaScaling);
+}
+
+}
@@ -0,0 +1,56 @@
+package GeneticAlgorithm;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Linear rank selection: members are selected in proportion to their rank
+ * rather than their fitness. The fittest member is pressure times as likely to
+ * be selected as an average member, and the least fit 2 - pressure times.
+ * @author Sage Ralph <SageJeanRalph@Gmail.com>
+ */
+public class RankSelection implements SelectionStrategy {
+
+private final double pressure;
+
+/**
+ * @param pressure The selection pressure, between 1 (uniform) and 2
+ */
+public RankSelection(double pressure) {
+    if (!(pressure >= 1 && pressure <= 2)) {
+        throw new IllegalArgumentException(
+                "Rank selection pressure must be between 1 and 2");
+    }
+    this.pressure = pressure;
+}
+
+@Override
+public void select(Generation population, int[] selected, SplittableRandom random) {
+    double[] fitness = population.getFitnessArray(false);
+    int popSize = fitness.length;
+
+    // Order members from least to most fit
+    Integer[] order = new Integer[popSize];
+    for (int i = 0; i < popSize; i++) {
+        order[i] = i;
+    }
+    Arrays.sort(order, (Integer c1, Integer c2)
+            -> Double.compare(fitness[c1], fitness[c2]));
+
+    double[] weights = new double[popSize];
+    for (int rank = 0; rank < popSize; rank++) {
+        weights[order[rank]] = popSize == 1 ? 1
+                : (2 - pressure) + 2 * (pressure - 1) * rank / (popSize - 1);
+    }
+
+    AliasTable wheel = new AliasTable(weights);
+    for (int i = 0; i < selected.length; i++) {
+        selected[i] = wheel.sample(random);
+    }
+}
+
+@Override
+public String toString() {
+    return "Linear Rank (pressure " + pressure + ")";
+}
+
+}
@@ -0,0 +1,28 @@
+package GeneticAlgorithm;
+import java.util.SplittableRandom;
+
+/**
+ * Fitness proportional (roulette wheel) selection, drawing each member
+ * independently from an alias table. Negative fitness is treated as 0.
+ * @author Sage Ralph <SageJeanRalph@Gmail.com>
+ */
+public class RouletteSelection extends ProportionalSelection {
+
+public RouletteSelection(boolean sigmaScaling) {
+    super(sigmaScaling);
+}
+
+@Override
+public void select(Generation population, int[] selected, SplittableRandom random) {
+    AliasTable wheel = new AliasTable(weights(population));
+    for (int i = 0; i < selected.length; i++) {
+        selected[i] = wheel.sample(random);
+    }
+}
+
+@Override
+public String toString() {
+    return "Fitness Proportional";
+}
+
+}
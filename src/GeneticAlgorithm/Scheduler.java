@@ -0,0 +1,87 @@
+package GeneticAlgorithm;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The ways runs can be scheduled onto threads.
+ * @author Sage Ralph <SageJeanRalph@Gmail.com>
+ */
+public enum Scheduler {
+
+FIXED("Fixed thread pool"),
+WORK_STEALING("Work stealing"),
+VIRTUAL("Virtual threads");
+
+// Looked up reflectively so the project still builds for Java 8; null on
+// runtimes older than 21
+private static final Method NEW_VIRTUAL_EXECUTOR = newVirtualExecutor();
+
+private final String label;
+
+Scheduler(String label) {
+    this.label = label;
+}
+
+private static Method newVirtualExecutor() {
+    try {
+        return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+    } catch (NoSuchMethodException e) {
+        return null;
+    }
+}
+
+/**
+ * @return Whether virtual threads are available, rather than falling back
+ * to a fixed thread pool
+ */
+private static boolean virtualThreadsAvailable() {
+    return NEW_VIRTUAL_EXECUTOR != null;
+}
+
+/**
+ * Creates an executor for a batch of runs. Virtual threads start a thread per
+ * run and ignore threadCount, which suits fitness functions that block. They
+ * need Java 21; on older runtimes a fixed thread pool is used instead.
+ * @param threadCount The number of threads, for pooled schedulers
+ * @return The executor, which the caller must shut down
+ */
+public ExecutorService create(int threadCount) {
+    switch (this) {
+        case WORK_STEALING:
+            return Executors.newWorkStealingPool(threadCount);
+        case VIRTUAL:
+            if (virtualThreadsAvailable()) {
+                try {
+                    return (ExecutorService) NEW_VIRTUAL_EXECUTOR.invoke(null);
+                } catch (IllegalAccessException
+                        | InvocationTargetException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return Executors.newFixedThreadPool(threadCount);
+        default:
+            return Executors.newFixedThreadPool(threadCount);
+    }
+}
+
+/**
+ * @param threadCount The number of threads requested
+ * @return A description of the threads create() will use
+ */
+public String describe(int threadCount) {
+    if (this == VIRTUAL) {
+        return virtualThreadsAvailable() ? label.toLowerCase()
+                : threadCount + " threads (" + FIXED.label.toLowerCase()
+                + ", as virtual threads need Java 21)";
+    }
+    return threadCount + " threads (" + label.toLowerCase() + ")";
+}
+
+@Override
+public String toString() {
+    return label;
+}
+
+}
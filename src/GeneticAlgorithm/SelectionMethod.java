@@ -0,0 +1,69 @@
+package GeneticAlgorithm;
+
+/**
+ * The available selection strategies, and their tunable parameter.
+ * @author Sage Ralph <SageJeanRalph@Gmail.com>
+ */
+public enum SelectionMethod {
+
+ROULETTE("Fitness proportional", Double.NaN),
+STOCHASTIC_UNIVERSAL("Stochastic universal sampling", Double.NaN),
+TOURNAMENT("Tournament", 2),
+RANK("Linear rank", 1.5),
+TRUNCATION("Truncation", 0.5);
+
+private final String label;
+private final double defaultParameter;
+
+SelectionMethod(String label, double defaultParameter) {
+    this.label = label;
+    this.defaultParameter = defaultParameter;
+}
+
+/**
+ * Creates a strategy for this method.
+ * @param sigmaScaling Whether fitness proportional methods apply sigma scaling
+ * @param parameter The tournament size, rank selection pressure or truncation
+ * fraction. Ignored by fitness proportional methods.
+ * @return The strategy
+ * @throws IllegalArgumentException If parameter is out of range
+ */
+public SelectionStrategy create(boolean sigmaScaling, double parameter) {
+    switch (this) {
+        case ROULETTE:
+            return new RouletteSelection(sigmaScaling);
+        case STOCHASTIC_UNIVERSAL:
+            return new StochasticUniversalSelection(sigmaScaling);
+        case TOURNAMENT:
+            if (parameter != Math.rint(parameter)) {
+                throw new IllegalArgumentException(
+                        "Tournament size must be a whole number");
+            }
+            return new TournamentSelection((int) parameter);
+        case RANK:
+            return new RankSelection(parameter);
+        default:
+            return new TruncationSelection(parameter);
+    }
+}
+
+/**
+ * @return Whether create() makes use of its parameter
+ */
+public boolean hasParameter() {
+    return !Double.isNaN(defaultParameter);
+}
+
+/**
+ * @return A sensible parameter for this method, or NaN if it has none
+ */
+public double defaultParameter() {
+    return defaultParameter;
+}
+
+@Override
+public String toString() {
+    return label;
+}
+
+}
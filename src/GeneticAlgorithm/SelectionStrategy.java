@@ -0,0 +1,20 @@
+package GeneticAlgorithm;
+import java.util.SplittableRandom;
+
+/**
+ * A method of choosing the members of a population that will be mated.
+ * Strategies hold no state between calls, so one instance may be shared by
+ * many simulations.
+ * @author Sage Ralph <SageJeanRalph@Gmail.com>
+ */
+public interface SelectionStrategy {
+
+/**
+ * Fills a mating pool from population.
+ * @param population The current population
+ * @param selected Array to fill with indexes into population
+ * @param random The source of randomness
+ */
+void select(Generation population, int[] selected, SplittableRandom random);
+
+}
@@ -1,128 +1,354 @@
 package GeneticAlgorithm;
-import java.util.ArrayList;
-import java.util.Random;
+import java.util.BitSet;
+import java.util.SplittableRandom;
 
 /**
  * @author Sage Ralph <SageJeanRalph@Gmail.com>
  */
 public class Simulation {
 
-private final int rangeMin, rangeMax, populationSize, maxGenerations, elitism;
-private final double mutationChance;
-private final boolean sigmaScaling, genDetail, genSummary, runSummary;
+// Phases are timed every TIMING_INTERVAL-th generation, as reading the clock
+// costs a noticeable share of a small population's generation
+static final int TIMING_INTERVAL = 16;
+
+private final SimulationConfig config;
+private final int elitism;
+private final boolean genDetail, genSummary, runSummary;
+private final SelectionStrategy selection;
 private final String simNo;
-private String out = "";
-
-public Simulation(
-        String simNo,
-        int rangeMin,
-        int rangeMax,
-        int populationSize,
-        int maxGenerations,
-        int elitism,
-        double mutationChance,
-        boolean sigmaScaling,
-        boolean genDetail,
-        boolean genSummary,
-        boolean runSummary) {
+private final SplittableRandom random;
+private final Metrics metrics;
+private final StringBuilder out = new StringBuilder();
+private volatile boolean cancelled;
+
+// Progress
+private Generation population;
+private int generation;
+private int bestGeneration;
+private double bestFitness = Double.NaN;
+private long bestGenes;
+private boolean solved;
+private boolean timed; // Whether this generation's phases are timed
+private long lookups; // Fitness lookups, reported to the cache by finish()
+private Events.Run runEvent;
+
+/**
+ * @param simNo Identifies the run in output
+ * @param config The simulation's settings
+ * @param random The source of randomness, used by this run alone
+ */
+public Simulation(String simNo, SimulationConfig config,
+        SplittableRandom random) {
     this.simNo = simNo;
-    this.rangeMin = rangeMin;
-    this.rangeMax = rangeMax;
-    this.populationSize = populationSize;
-    this.maxGenerations = maxGenerations;
-    this.elitism = elitism;
-    this.mutationChance = mutationChance;
-    this.sigmaScaling = sigmaScaling;
-    this.genDetail = genDetail;
-    this.genSummary = genSummary;
-    this.runSummary = runSummary;
+    this.config = config;
+    this.elitism = config.elitism();
+    this.selection = config.selection();
+    this.genDetail = config.genDetail();
+    this.genSummary = config.genSummary();
+    this.runSummary = config.runSummary();
+    this.metrics = config.metrics();
+    this.random = random;
 }
 
+/**
+ * Runs the simulation to completion.
+ * @return The generation in which the best fitness was first reached
+ */
 public int run() {
+    start();
+    while (!isFinished()) {
+        step();
+    }
+    return finish();
+}
 
-    Chromosome.min = rangeMin;
-    Chromosome.max = rangeMax;
+/**
+ * Creates the initial population. Must be called before step().
+ */
+public void start() {
+    runEvent = new Events.Run();
+    runEvent.begin();
 
     // Create random population for generation 0
-    Generation population = new Generation(populationSize);
+    timed = true;
+    population = new Generation(config, random);
+    evaluate();
 
     if (genSummary) {
-        out += ("\nRun " + simNo
-                + " Generation 0 (initial population)"
-                + describePopulation(population) + "\n");
+        out.append("\nRun ").append(simNo)
+                .append(" Generation 0 (initial population)");
+        describePopulation(population);
+        out.append('\n');
     }
 
-    int bestGeneration = 0;
-    double bestRunningFitness = population.mostFit().fitness();
+    generation = 0;
+    bestGeneration = 0;
+    int fittest = population.fittestIndex();
+    bestFitness = population.fitness(fittest);
+    bestGenes = population.genes(fittest);
+    solved = config.correctSolution(bestFitness);
+    flush();
+}
+
+/**
+ * @return Whether the maximum generation or a known solution has been
+ * reached, or the simulation has been cancelled
+ */
+public boolean isFinished() { // TODO more stopping conditions
+    return solved || generation >= config.maxGenerations()
+            || cancelled || Thread.currentThread().isInterrupted();
+}
+
+/**
+ * Evolves the population by one generation.
+ */
+public void step() {
+    Events.Generation event = new Events.Generation();
+    event.begin();
+    generation++;
+    timed = generation % TIMING_INTERVAL == 0;
+    long start = clock();
+    population = evolve(population);
+    evaluate();
+    lap(metrics.getGeneration(), start);
 
-    // Simulate
-    for (int i = 1; i <= maxGenerations; i++) { // TODO more stopping conditions
+    if (genSummary) {
+        out.append("\n\nRun ").append(simNo)
+                .append(" Generation ").append(generation);
+        describePopulation(population);
+    }
 
-        population = evolve(population);
+    if (recordBest()) {
 
         if (genSummary) {
-            out += ("\n\nRun " + simNo + " Generation " + i);
-            out += (describePopulation(population));
+            out.append("\nBest solution improved!\n");
         }
+    } else {
 
-        double bestCurrentFitness = population.mostFit().fitness();
-        if (bestCurrentFitness > bestRunningFitness) {
-            bestRunningFitness = bestCurrentFitness;
-            bestGeneration = i;
+        if (genSummary) {
+            out.append("\nBest solution has not improved since generation ")
+                    .append(bestGeneration).append('\n');
+        }
+    }
+    flush();
+
+    event.end();
+    if (event.shouldCommit()) {
+        event.run = simNo;
+        event.generation = generation;
+        event.populationSize = population.popSize();
+        event.bestFitness = bestFitness;
+        event.commit();
+    }
+}
 
-            if (genSummary) {
-                out += ("\nBest solution improved!\n");
-            }
-        } else {
+/**
+ * Evaluates the members of the current population not yet evaluated, timing
+ * the evaluation apart from the rest of the generation.
+ */
+private void evaluate() {
+    Events.Phase event = new Events.Evaluation();
+    event.begin();
+    long start = clock();
+    lookups += population.unevaluated();
+    population.getFitnessArray(false);
+    lap(metrics.getEvaluation(), start);
+    commit(event);
+}
 
-            if (genSummary) {
-                out
-                        += ("\nBest solution has not improved "
-                        + "since generation " + bestGeneration + "\n");
-            }
-        }
+/**
+ * Ends the event of a phase of the current generation, recording it if it
+ * passes its threshold.
+ * @param event
+ */
+private void commit(Events.Phase event) {
+    event.end();
+    if (event.shouldCommit()) {
+        event.run = simNo;
+        event.generation = generation;
+        event.populationSize = config.populationSize();
+        event.commit();
+    }
+}
 
-        if (Main.correctSolution(population.mostFit().fitness())) {
-            break;
-        }
+/**
+ * @return The time, if this generation is timed
+ */
+private long clock() {
+    return timed ? System.nanoTime() : 0;
+}
+
+/**
+ * Records the time since start against phase, if this generation is timed.
+ * @return The time, as from clock()
+ */
+private long lap(PhaseTimer phase, long start) {
+    return timed ? phase.stop(start) : 0;
+}
+
+/**
+ * Updates the best solution found with the current population.
+ * @return Whether the best solution improved
+ */
+private boolean recordBest() {
+    int fittest = population.fittestIndex();
+    double bestCurrentFitness = population.fitness(fittest);
+    if (config.correctSolution(bestCurrentFitness)) {
+        solved = true;
     }
 
-    if (runSummary) {
-        out += ("\n"
-                + "\n======================================"
-                + "\nRun " + simNo + " complete, best generation = " + bestGeneration
-                + "\nBest value = " + population.mostFit().toString()
-                + " with fitness " + population.mostFit().fitness()
-                + "\n======================================"
-                + "\n\n\n");
+    if (bestCurrentFitness > bestFitness) {
+        bestFitness = bestCurrentFitness;
+        bestGenes = population.genes(fittest);
+        bestGeneration = generation;
+        return true;
     }
+    return false;
+}
 
-    if (!out.equals("")) {
-        GUI.output(out);
+/**
+ * Outputs the run summary, if enabled, and any logging.
+ * @return The generation in which the best fitness was first reached
+ */
+public int finish() {
+    if (runSummary) {
+        Chromosome best = population.mostFit();
+        out.append("\n")
+                .append("\n======================================")
+                .append("\nRun ").append(simNo)
+                .append(" complete, best generation = ").append(bestGeneration)
+                .append("\nBest value = ").append(best)
+                .append(" with fitness ").append(best.fitness())
+                .append("\n======================================")
+                .append("\n\n\n");
     }
+    flush();
+    config.fitnessCache().recordLookups(lookups);
+
+    runEvent.end();
+    if (runEvent.shouldCommit()) {
+        runEvent.run = simNo;
+        runEvent.populationSize = population.popSize();
+        runEvent.generations = generation;
+        runEvent.bestFitness = bestFitness;
+        runEvent.bestGeneration = bestGeneration;
+        runEvent.solved = solved;
+        runEvent.commit();
+    }
+    return bestGeneration;
+}
 
+/**
+ * Stops the simulation at the end of its current generation.
+ */
+public void cancel() {
+    cancelled = true;
+}
+
+/**
+ * @return The number of generations evolved so far
+ */
+public int generation() {
+    return generation;
+}
+
+/**
+ * @return The generation in which the best fitness was first reached
+ */
+public int bestGeneration() {
     return bestGeneration;
 }
 
 /**
- * Outputs a description of the current state of the population to the console.
+ * @return The best fitness reached, or NaN if the simulation has not started
+ */
+public double bestFitness() {
+    return bestFitness;
+}
+
+/**
+ * @return The best solution found so far
+ */
+public Chromosome best() {
+    return new Chromosome(config, bestGenes, bestFitness);
+}
+
+/**
+ * @return Whether a known solution has been reached
+ */
+public boolean isSolved() {
+    return solved;
+}
+
+/**
+ * Copies the fittest members of the current population, to be sent to
+ * another population.
+ * @param count The number of members wanted
+ * @return The migrants
+ */
+public Migration emigrate(int count) {
+    int[] fittest = population.fittest(count);
+    long[] genes = new long[fittest.length];
+    double[] fitness = new double[fittest.length];
+    for (int i = 0; i < fittest.length; i++) {
+        genes[i] = population.genes(fittest[i]);
+        fitness[i] = population.fitness(fittest[i]);
+    }
+    return new Migration(genes, fitness);
+}
+
+/**
+ * Replaces the least fit members of the current population with migrants
+ * from another population.
+ * @param migration The migrants
+ */
+public void immigrate(Migration migration) {
+    int[] ranked = population.fittest(population.popSize());
+    int count = Math.min(migration.size(), ranked.length);
+    for (int i = 0; i < count; i++) {
+        population.set(ranked[ranked.length - 1 - i],
+                migration.genes(i), migration.fitness(i));
+
+        if (genDetail) {
+            out.append("\nImmigrant ")
+                    .append(Chromosome.toString(config, migration.genes(i)))
+                    .append(" replaces member ").append(ranked[ranked.length - 1 - i]);
+        }
+    }
+    recordBest();
+    flush();
+}
+
+/**
+ * Passes everything logged since the last flush to the log sink as one event,
+ * so that each generation's output stays together.
+ */
+private void flush() {
+    if (out.length() > 0) {
+        config.log().log(out.toString());
+        out.setLength(0);
+    }
+}
+
+/**
+ * Logs a description of the current state of the population.
  * @param population
  */
-private static String describePopulation(Generation population) {
+private void describePopulation(Generation population) {
     Chromosome best = population.mostFit();
-    return ("\n"
-            + "-------------------------------------------------"
-            + "\n"
-            + "Population = " + population.toString()
-            + "\n"
-            + "Fitness"
-            + ": Total = " + population.totalFitness(false)
-            + ", Average = " + population.averageFitness(false)
-            + "\n"
-            + "Best solution = " + best.toString()
-            + " with fitness " + best.fitness()
-            + "\n"
-            + "-------------------------------------------------");
+    out.append("\n")
+            .append("-------------------------------------------------")
+            .append("\n")
+            .append("Population = ").append(population)
+            .append("\n")
+            .append("Fitness")
+            .append(": Total = ").append(population.totalFitness(false))
+            .append(", Average = ").append(population.averageFitness(false))
+            .append("\n")
+            .append("Best solution = ").append(best)
+            .append(" with fitness ").append(best.fitness())
+            .append("\n")
+            .append("-------------------------------------------------");
 }
 
 /**
@@ -134,159 +360,176 @@ private static String describePopulation(Generation population) {
 private Generation evolve(Generation currentPop) {
 
     if (genDetail) {
-        out += "\n\n - - - - - - - - - - - - - - - - "
-                + " Running iteration "
-                + " - - - - - - - - - - - - - - - -";
+        out.append("\n\n - - - - - - - - - - - - - - - - ")
+                .append(" Run ").append(simNo)
+                .append(" Generation ").append(generation).append(' ')
+                .append(" - - - - - - - - - - - - - - - -");
     }
 
-    // Array to hold new population members
-    Chromosome[] offspring = new Chromosome[currentPop.popSize()];
-    ArrayList<Chromosome> matingPool;
+    // Columns to hold new population members
+    int popSize = currentPop.popSize();
+    long[] offspring = new long[popSize];
+    double[] fitness = new double[popSize];
+    BitSet evaluated = new BitSet(popSize);
+    int[] matingPool;
+    long time = clock();
 
     // Apply elitism if nessesary
     if (elitism > 0) {
-        applyElitism(currentPop, offspring);
+        applyElitism(currentPop, offspring, fitness, evaluated);
+        time = lap(metrics.getElitism(), time);
     }
 
-    // Fill mating pool via selection method (Currently only FPS)
-    matingPool = fitnessProportionalSelection(currentPop);
+    // Fill mating pool via the selection strategy
+    Events.Phase event = new Events.Selection();
+    event.begin();
+    matingPool = select(currentPop);
+    time = lap(metrics.getSelection(), time);
+    commit(event);
 
     // Produce the non-elites of the next generation through mating
-    mate(matingPool, offspring);
+    event = new Events.Mating();
+    event.begin();
+    mate(currentPop, matingPool, offspring);
+    time = lap(metrics.getMating(), time);
+    commit(event);
 
     // Apply mutation if nessesary
-    if (mutationChance > 0) {
+    if (config.mutationChance() > 0) {
+        event = new Events.Mutation();
+        event.begin();
         applyMutation(offspring);
+        lap(metrics.getMutation(), time);
+        commit(event);
     }
 
     if (genDetail) {
-        out += "\n";
+        out.append('\n');
     }
 
-    return new Generation(offspring);
+    return new Generation(config, offspring, fitness, evaluated);
 }
 
 /**
- * Applies fitness proportional selection to currentPop to produce a mating
- * pool.
+ * Applies the selection strategy to currentPop to produce a mating pool.
  * @param currentPop The current population
- * @return The mating pool
+ * @return The mating pool, as indexes into currentPop
  */
-private ArrayList<Chromosome> fitnessProportionalSelection(Generation currentPop) {
+private int[] select(Generation currentPop) {
 
     if (genDetail) {
-        out += "\n - - - - - - - - - "
-                + " Fitness Proportional Selection "
-                + " - - - - - - - - - -";
+        out.append("\n - - - - - - - - - ")
+                .append(' ').append(selection).append(" Selection ")
+                .append(" - - - - - - - - - -");
+        describeSelection(currentPop);
     }
 
-    Chromosome[] existing = currentPop.getPopulation();
-    int popSize = existing.length;
-
-    double[] fitness = currentPop.getFitnessArray(sigmaScaling);
-    double[] matingProbs = new double[popSize];
-
-    // Determine proportions of total fitness
-    double totalFitness = currentPop.totalFitness(sigmaScaling);
-    for (int i = 0; i < popSize; i++) {
-
-        matingProbs[i] = fitness[i] / totalFitness;
+    // Build mating pool
+    int[] matingPool = new int[Math.max(currentPop.popSize() - elitism, 0)];
+    selection.select(currentPop, matingPool, random);
 
-        if (genDetail) {
-            String proportion
-                    = Double.toString(matingProbs[i]).substring(0, 3); // 2dp
+    return matingPool;
+}
 
-            out += "\nChromosome  " + existing[i].toString()
-                    + " : Fitness = " + Math.round(fitness[i])
-                    + " : Proportion = " + proportion;
+/**
+ * Logs the fitness of each member of currentPop, along with its share of the
+ * total fitness when selection is fitness proportional.
+ * @param currentPop The current population
+ */
+private void describeSelection(Generation currentPop) {
+    double[] fitness = selection instanceof ProportionalSelection
+            ? ((ProportionalSelection) selection).weights(currentPop)
+            : currentPop.getFitnessArray(false);
 
-        }
+    // Determine proportions of total fitness
+    double totalFitness = 0;
+    for (double fit : fitness) {
+        totalFitness += fit;
     }
-
-    // Build mating pool
-    ArrayList<Chromosome> matingPool = new ArrayList<>();
-
-    // Select mating pool members based on matingProbs
-    for (int i = elitism; i < popSize; i++) {
-        int decider = selectFromProb(matingProbs);
-        Chromosome selected = existing[decider];
-        matingPool.add(selected);
+    for (int i = 0; i < fitness.length; i++) {
+        out.append("\nChromosome  ")
+                .append(Chromosome.toString(config, currentPop.genes(i)))
+                .append(" : Fitness = ").append(Math.round(fitness[i]));
+
+        if (selection instanceof ProportionalSelection) {
+            String proportion = Double.toString(fitness[i] / totalFitness)
+                    .substring(0, 3); // 2dp
+            out.append(" : Proportion = ").append(proportion);
+        }
     }
-
-    return matingPool;
 }
 
 /**
- * Randomly mates members of matingPool to produce offspring.
- * @param matingPool The population of parents to mate
+ * Randomly mates members of matingPool to produce offspring. The pool is
+ * shuffled once and parents are paired in order, except that a parent whose
+ * genes match the one waiting for a mate is deferred until a different one
+ * arrives. Parents left without a viable mate are cloned.
+ * @param currentPop The current population
+ * @param selected Indexes of the parents to mate
  * @param offspring Array in which to store children, only indexes >= elitism
  * will be filled
  */
-private void mate(ArrayList<Chromosome> matingPool, Chromosome[] offspring) {
+private void mate(Generation currentPop, int[] selected, long[] offspring) {
 
     if (genDetail) {
-        out += "\n - - - - - - - - - - - - - - - - - - - - - - "
-                + " Mating "
-                + " - - - - - - - - - - - - - - - - - - - - - -";
+        out.append("\n - - - - - - - - - - - - - - - - - - - - - - ")
+                .append(" Mating ")
+                .append(" - - - - - - - - - - - - - - - - - - - - - -");
+    }
+
+    // Shuffle the mating pool
+    long[] matingPool = new long[selected.length];
+    for (int i = 0; i < selected.length; i++) {
+        matingPool[i] = currentPop.genes(selected[i]);
+    }
+    for (int i = matingPool.length - 1; i > 0; i--) {
+        int j = random.nextInt(i + 1);
+        long swap = matingPool[i];
+        matingPool[i] = matingPool[j];
+        matingPool[j] = swap;
     }
 
     // Produce offspring
     int n = elitism; // Number of chromosomes currently in next gen
-    Random random = new Random();
-    while (!matingPool.isEmpty()) {
-
-        // Select parents from mating pool
-        // Randomly pick first parent
-        int r1 = random.nextInt(matingPool.size());
-        Chromosome p1 = matingPool.get(r1);
-
-        // Identify viable mates
-        ArrayList<Chromosome> options = new ArrayList<>();
-        for (Chromosome ch : matingPool) {
-            if (!ch.genes().equals(p1.genes())) {
-                options.add(ch);
-            }
+    int waiting = 0; // Number of parents waiting for a mate, all identical
+    long p1 = 0; // Genes of the waiting parents
+    for (long p2 : matingPool) {
+
+        if (waiting == 0 || p2 == p1) {
+            // No viable mate yet
+            p1 = p2;
+            waiting++;
+            continue;
         }
 
-        if (options.isEmpty()) {
+        // Mate
+        Chromosome.mate(config, p1, p2, offspring, n, random);
+        n += 2;
+        waiting--;
 
-            // Add remaining candidates to next gen if no viable mates
-            if (genDetail) {
-                out
-                        += "\nNo viable mating pairs; "
-                        + "cloning remaining parents";
-            }
-            for (Chromosome ch : matingPool) {
-                offspring[n] = new Chromosome(ch.genes());
-                n++;
-
-                if (genDetail) {
-                    out += "\nCloning chromosome " + ch.toString();
-                }
-            }
-            matingPool.clear();
-
-        } else {
-
-            // Pick randomly out of potentials
-            int r2 = random.nextInt(options.size());
-            Chromosome p2 = options.get(r2);
+        if (genDetail) {
+            out.append("\nMating chromosome  ")
+                    .append(Chromosome.toString(config, p1))
+                    .append("  with  ")
+                    .append(Chromosome.toString(config, p2));
+        }
+    }
 
-            // Mate
-            Chromosome[] siblings = Chromosome.mate(p1, p2);
-            offspring[n] = siblings[0];
-            offspring[n + 1] = siblings[1];
-            n += 2;
+    if (waiting > 0) {
+        metrics.cloned(waiting);
 
-            // Remove parents from mating pool
-            matingPool.remove(r1);
-            matingPool.remove(r2);
+        // Add remaining candidates to next gen if no viable mates
+        if (genDetail) {
+            out.append("\nNo viable mating pairs; ")
+                    .append("cloning remaining parents");
+        }
+        for (; waiting > 0; waiting--) {
+            offspring[n] = p1;
+            n++;
 
             if (genDetail) {
-                out += "\nMating chromosome  "
-                        + p1.toString()
-                        + "  with  "
-                        + p2.toString();
+                out.append("\nCloning chromosome ")
+                        .append(Chromosome.toString(config, p1));
             }
         }
     }
@@ -294,89 +537,98 @@ private void mate(ArrayList<Chromosome> matingPool, Chromosome[] offspring) {
 
 /**
  * Preserves the best members of currentPop, mixing them with offspring.
- * Offspring will be filled from index 0 to elitism.
+ * Offspring will be filled from index 0 to elitism, along with their fitness.
  * @param currentPop The current population
  * @param offspring An array containing the preserved elites
+ * @param fitness An array containing the fitness of the preserved elites
+ * @param evaluated Marks the preserved elites as already evaluated
  */
-private void applyElitism(Generation currentPop, Chromosome[] offspring) {
+private void applyElitism(Generation currentPop, long[] offspring,
+        double[] fitness, BitSet evaluated) {
 
     if (genDetail) {
-        out += "\n - - - - - - - - - - - - - - - - - "
-                + " Applying Elitism "
-                + " - - - - - - - - - - - - - - - - -";
+        out.append("\n - - - - - - - - - - - - - - - - - ")
+                .append(" Applying Elitism ")
+                .append(" - - - - - - - - - - - - - - - - -");
     }
 
-    Chromosome[] fittest = currentPop.fittest();
+    int[] fittest = currentPop.fittest(elitism);
 
-    for (int i = 0; i < elitism; i++) {
+    for (int i = 0; i < fittest.length; i++) {
         // Preserve best members intact
-        offspring[i] = fittest[i];
+        offspring[i] = currentPop.genes(fittest[i]);
+        fitness[i] = currentPop.fitness(fittest[i]);
 
         if (genDetail) {
-            out += "\nPreserving chromosome " + offspring[i].toString()
-                    + ", fitness = " + offspring[i].fitness();
+            out.append("\nPreserving chromosome ")
+                    .append(Chromosome.toString(config, offspring[i]))
+                    .append(", fitness = ").append(fitness[i]);
         }
     }
+    evaluated.set(0, fittest.length);
 
 }
 
 /**
- * Applies mutation chance to Chromosomes in population.
+ * Applies mutation chance to Chromosomes in population. Rather than drawing
+ * once per gene, the gap to the next mutated gene is drawn from a geometric
+ * distribution over the genes of all non-elite members laid end to end, so
+ * only mutations that actually happen cost a random draw.
  * @param population The population to mutate
  */
-private void applyMutation(Chromosome[] population) {
+private void applyMutation(long[] population) {
 
     if (genDetail) {
-        out += "\n - - - - - - - - - - - - - - - - - - - - - - "
-                + " Mutate "
-                + " - - - - - - - - - - - - - - - - - - - - - -";
+        out.append("\n - - - - - - - - - - - - - - - - - - - - - - ")
+                .append(" Mutate ")
+                .append(" - - - - - - - - - - - - - - - - - - - - - -");
     }
 
     boolean mutationOccured = false;
 
-    for (int i = elitism; i < population.length; i++) { // Don't mutate elites
-        Chromosome ch = population[i];
+    int geneNo = config.geneNo();
+    long end = (long) population.length * geneNo;
+    double logMiss = Math.log1p(-config.mutationChance());
 
-        for (int bit = 0; bit < ch.genes().length(); bit++) {
-            // Apply mutation chance to every gene/bit
-            if (Math.random() < mutationChance) {
+    // Don't mutate elites
+    for (long pos = (long) elitism * geneNo + nextMutationGap(logMiss);
+            pos < end; pos += 1 + nextMutationGap(logMiss)) {
+        int i = (int) (pos / geneNo);
+        int bit = (int) (pos % geneNo);
 
-                if (genDetail) {
-                    out
-                            += "\nChromosome " + ch.toString()
-                            + " mutated gene " + bit;
-                }
+        if (genDetail) {
+            out.append("\nChromosome ")
+                    .append(Chromosome.toString(config, population[i]))
+                    .append(" mutated gene ").append(bit);
+        }
 
-                ch.mutate(bit);
-                mutationOccured = true;
+        population[i] = Chromosome.mutate(config, population[i], bit);
+        mutationOccured = true;
 
-                if (genDetail) {
-                    out += "\nnew value: " + ch.toString();
-                }
-            }
+        if (genDetail) {
+            out.append("\nnew value: ")
+                    .append(Chromosome.toString(config, population[i]));
         }
     }
     if (genDetail && !mutationOccured) {
-        out += "\nNo mutations occured";
+        out.append("\nNo mutations occured");
     }
 }
 
 /**
- * Randomly selects a value from an array of probabilities. Will return -1 if
- * the input probabilities are invalid.
- * @param probs An array of probabilities.
- * @return The selected index
+ * Draws the number of genes skipped before the next mutation, which is
+ * geometrically distributed when each gene mutates independently.
+ * @param logMiss The natural log of (1 - mutationChance)
+ * @return The number of unmutated genes before the next mutated one
  */
-public static int selectFromProb(double[] probs) {
-    double p = Math.random();
-    double cumulativeProbability = 0.0;
-    for (int i = 0; i < probs.length; i++) {
-        cumulativeProbability += probs[i];
-        if (p <= cumulativeProbability) {
-            return i;
-        }
+private long nextMutationGap(double logMiss) {
+    if (logMiss == Double.NEGATIVE_INFINITY) {
+        return 0; // Every gene mutates
     }
-    return -1; // inputs are invalid!
+
+    // 1 - nextDouble() lies in (0, 1], so the log is finite
+    double gap = Math.floor(Math.log(1 - random.nextDouble()) / logMiss);
+    return gap < Long.MAX_VALUE / 2 ? (long) gap : Long.MAX_VALUE / 2;
 }
 
 }
@@ -0,0 +1,215 @@
+package GeneticAlgorithm;
+
+/**
+ * The immutable settings of a simulation: its GA parameters, the encoding of
+ * values as genes, and the fitness function. Simulations, Generations and
+ * Chromosomes read everything from their SimulationConfig rather than from
+ * static state, so differently configured simulations can run side by side.
+ * @author Sage Ralph <SageJeanRalph@Gmail.com>
+ */
+public final class SimulationConfig {
+
+private final int populationSize, maxGenerations, elitism;
+private final double mutationChance;
+private final SelectionStrategy selection;
+private final boolean genDetail, genSummary, runSummary;
+private final boolean allowKnownSolution;
+private final double knownMax;
+private final FitnessCache fitness;
+private final int evaluationThreshold;
+private final LogSink log;
+private final Metrics metrics;
+
+// Encoding, derived from the range
+private final int rangeMin, rangeMax;
+private final long rangeMod;
+private final int geneNo;
+
+/**
+ * @param populationSize
+ * @param maxGenerations
+ * @param elitism Members preserved between generations
+ * @param mutationChance Chance of each gene mutating
+ * @param selection
+ * @param rangeMin The lowest value encoded by a Chromosome
+ * @param rangeMax The highest value encoded by a Chromosome
+ * @param fitness The fitness function, memoised over the range
+ * @param evaluationThreshold The most members a Generation evaluates on one
+ * thread; larger populations are evaluated in parallel
+ * @param allowKnownSolution Whether reaching knownMax ends a run
+ * @param knownMax
+ * @param genDetail
+ * @param genSummary
+ * @param runSummary
+ * @param log Where the simulation's output goes
+ * @param metrics Where the simulation's timings and counters go
+ * @throws IllegalArgumentException If rangeMin is greater than rangeMax, or
+ * mutationChance is not between 0 and 1
+ */
+public SimulationConfig(
+        int populationSize,
+        int maxGenerations,
+        int elitism,
+        double mutationChance,
+        SelectionStrategy selection,
+        int rangeMin,
+        int rangeMax,
+        FitnessCache fitness,
+        int evaluationThreshold,
+        boolean allowKnownSolution,
+        double knownMax,
+        boolean genDetail,
+        boolean genSummary,
+        boolean runSummary,
+        LogSink log,
+        Metrics metrics) {
+    if (rangeMin > rangeMax) {
+        throw new IllegalArgumentException("Range [" + rangeMin + ", "
+                + rangeMax + "] is empty");
+    }
+    if (!(mutationChance >= 0 && mutationChance <= 1)) {
+        throw new IllegalArgumentException("Mutation chance "
+                + mutationChance + " is not between 0 and 1");
+    }
+    this.populationSize = populationSize;
+    this.maxGenerations = maxGenerations;
+    this.elitism = elitism;
+    this.mutationChance = mutationChance;
+    this.selection = selection;
+    this.rangeMin = rangeMin;
+    this.rangeMax = rangeMax;
+    this.fitness = fitness;
+    this.evaluationThreshold = Math.max(1, evaluationThreshold);
+    this.allowKnownSolution = allowKnownSolution;
+    this.knownMax = knownMax;
+    this.genDetail = genDetail;
+    this.genSummary = genSummary;
+    this.runSummary = runSummary;
+    this.log = log;
+    this.metrics = metrics;
+    metrics.watch(fitness);
+
+    // Shift range so min is always encoded as binary 0
+    rangeMod = 0 - (long) rangeMin;
+
+    // Calculate nessesary gene number
+    geneNo = Math.max(1, 64 - Long.numberOfLeadingZeros(rangeMax + rangeMod));
+}
+
+/**
+ * @param populationSize
+ * @param elitism
+ * @param mutationChance
+ * @param selection
+ * @return A copy of this config with the parameters provided
+ * @throws IllegalArgumentException If mutationChance is not between 0 and 1
+ */
+public SimulationConfig withParameters(int populationSize, int elitism,
+        double mutationChance, SelectionStrategy selection) {
+    return new SimulationConfig(populationSize, maxGenerations, elitism,
+            mutationChance, selection, rangeMin, rangeMax, fitness,
+            evaluationThreshold, allowKnownSolution, knownMax, genDetail,
+            genSummary, runSummary, log, metrics);
+}
+
+public int populationSize() {
+    return populationSize;
+}
+
+public int maxGenerations() {
+    return maxGenerations;
+}
+
+public int elitism() {
+    return elitism;
+}
+
+public double mutationChance() {
+    return mutationChance;
+}
+
+public SelectionStrategy selection() {
+    return selection;
+}
+
+public boolean genDetail() {
+    return genDetail;
+}
+
+public boolean genSummary() {
+    return genSummary;
+}
+
+public boolean runSummary() {
+    return runSummary;
+}
+
+public int rangeMin() {
+    return rangeMin;
+}
+
+public int rangeMax() {
+    return rangeMax;
+}
+
+/**
+ * @return The amount added to a value to encode it, so that rangeMin is 0
+ */
+public long rangeMod() {
+    return rangeMod;
+}
+
+/**
+ * @return The number of genes (bits) in every chromosome
+ */
+public int geneNo() {
+    return geneNo;
+}
+
+/**
+ * @return The memoised fitness function
+ */
+public FitnessCache fitnessCache() {
+    return fitness;
+}
+
+/**
+ * @return The most members a Generation evaluates on one thread
+ */
+public int evaluationThreshold() {
+    return evaluationThreshold;
+}
+
+/**
+ * @return Where the simulation's output goes
+ */
+public LogSink log() {
+    return log;
+}
+
+/**
+ * @return Where the simulation's timings and counters go
+ */
+public Metrics metrics() {
+    return metrics;
+}
+
+/**
+ * The fitness of a chromosome, remembered across generations and runs.
+ * @param value The value indicated by the chromosome
+ * @return The fitness of the chromosome
+ */
+public double fitness(int value) {
+    return fitness.fitness(value);
+}
+
+/**
+ * Customise this function to provide a known solution as a stopping point.
+ * @param value The calculated fitness value
+ * @return Whether value is a known correct solution
+ */
+public boolean correctSolution(double value) {
+    return allowKnownSolution && value == knownMax;
+}
+
+}
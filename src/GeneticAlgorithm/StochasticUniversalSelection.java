@@ -0,0 +1,56 @@
+package GeneticAlgorithm;
+import java.util.SplittableRandom;
+
+/**
+ * Stochastic universal sampling: fills the whole mating pool in a single pass
+ * over the population, using evenly spaced pointers from one random offset.
+ * Negative fitness is treated as 0, and if no fitness is positive every member
+ * is equally likely.
+ * @author Sage Ralph <SageJeanRalph@Gmail.com>
+ */
+public class StochasticUniversalSelection extends ProportionalSelection {
+
+public StochasticUniversalSelection(boolean sigmaScaling) {
+    super(sigmaScaling);
+}
+
+@Override
+public void select(Generation population, int[] selected, SplittableRandom random) {
+    if (selected.length == 0) {
+        return;
+    }
+    double[] weights = weights(population);
+
+    double total = 0;
+    int last = -1; // Last index which may be selected
+    for (int i = 0; i < weights.length; i++) {
+        if (weights[i] > 0) {
+            total += weights[i];
+            last = i;
+        }
+    }
+    boolean uniform = last == -1 || total == Double.POSITIVE_INFINITY;
+    if (uniform) {
+        total = weights.length;
+        last = weights.length - 1;
+    }
+
+    double step = total / selected.length;
+    double pointer = random.nextDouble() * step;
+    double cumulative = 0;
+    int i = -1;
+    for (int n = 0; n < selected.length; n++, pointer += step) {
+        while (i < last && cumulative <= pointer) {
+            i++;
+            cumulative += uniform ? 1 : weights[i] > 0 ? weights[i] : 0;
+        }
+        selected[n] = i;
+    }
+}
+
+@Override
+public String toString() {
+    return "Stochastic Universal";
+}
+
+}
@@ -0,0 +1,73 @@
+package GeneticAlgorithm;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * The ways islands of an IslandModel can be connected for migration.
+ * @author Sage Ralph <SageJeanRalph@Gmail.com>
+ */
+public enum Topology {
+
+RING("Ring"),
+FULLY_CONNECTED("Fully connected"),
+RANDOM("Random");
+
+private final String label;
+
+Topology(String label) {
+    this.label = label;
+}
+
+/**
+ * @param island The island sending migrants
+ * @param islandCount The number of islands
+ * @param random The source of randomness, used by RANDOM
+ * @return The islands that receive its migrants. A ring sends to the next
+ * island, a fully connected topology to every other island, and a random one
+ * to a different island chosen each time.
+ */
+public int[] targets(int island, int islandCount, SplittableRandom random) {
+    boolean[] alive = new boolean[islandCount];
+    Arrays.fill(alive, true);
+    return targets(island, alive, random);
+}
+
+/**
+ * As targets(int, int, SplittableRandom), but islands that are no longer
+ * alive are skipped over, a ring sending to the next island still alive.
+ * @param island The island sending migrants
+ * @param alive Whether each island is still alive
+ * @param random The source of randomness, used by RANDOM
+ * @return The islands that receive its migrants
+ */
+public int[] targets(int island, boolean[] alive, SplittableRandom random) {
+    int islandCount = alive.length;
+    int[] others = new int[islandCount];
+    int count = 0;
+    for (int i = 1; i < islandCount; i++) {
+        // Others in ring order, starting with the next island
+        int other = (island + i) % islandCount;
+        if (alive[other]) {
+            others[count++] = other;
+        }
+    }
+    if (count == 0) {
+        return new int[0];
+    }
+
+    switch (this) {
+        case RING:
+            return new int[]{others[0]};
+        case FULLY_CONNECTED:
+            return Arrays.copyOf(others, count);
+        default:
+            return new int[]{others[random.nextInt(count)]};
+    }
+}
+
+@Override
+public String toString() {
+    return label;
+}
+
+}
@@ -0,0 +1,43 @@
+package GeneticAlgorithm;
+import java.util.SplittableRandom;
+
+/**
+ * Selects the fittest of size randomly chosen members, for each place in the
+ * mating pool. Each pick is O(size), and only the members drawn are evaluated.
+ * @author Sage Ralph <SageJeanRalph@Gmail.com>
+ */
+public class TournamentSelection implements SelectionStrategy {
+
+private final int size;
+
+/**
+ * @param size The number of members in each tournament, at least 1
+ */
+public TournamentSelection(int size) {
+    if (size < 1) {
+        throw new IllegalArgumentException("Tournament size must be at least 1");
+    }
+    this.size = size;
+}
+
+@Override
+public void select(Generation population, int[] selected, SplittableRandom random) {
+    int popSize = population.popSize();
+    for (int n = 0; n < selected.length; n++) {
+        int best = random.nextInt(popSize);
+        for (int k = 1; k < size; k++) {
+            int challenger = random.nextInt(popSize);
+            if (population.fitness(challenger) > population.fitness(best)) {
+                best = challenger;
+            }
+        }
+        selected[n] = best;
+    }
+}
+
+@Override
+public String toString() {
+    return "Tournament (size " + size + ")";
+}
+
+}
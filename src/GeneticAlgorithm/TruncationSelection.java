@@ -0,0 +1,38 @@
+package GeneticAlgorithm;
+import java.util.SplittableRandom;
+
+/**
+ * Selects uniformly at random from the fittest fraction of the population.
+ * @author Sage Ralph <SageJeanRalph@Gmail.com>
+ */
+public class TruncationSelection implements SelectionStrategy {
+
+private final double fraction;
+
+/**
+ * @param fraction The fraction of the population eligible, above 0 and at
+ * most 1
+ */
+public TruncationSelection(double fraction) {
+    if (!(fraction > 0 && fraction <= 1)) {
+        throw new IllegalArgumentException(
+                "Truncation fraction must be above 0 and at most 1");
+    }
+    this.fraction = fraction;
+}
+
+@Override
+public void select(Generation population, int[] selected, SplittableRandom random) {
+    int count = (int) Math.max(1, Math.round(fraction * population.popSize()));
+    int[] fittest = population.fittest(count);
+    for (int i = 0; i < selected.length; i++) {
+        selected[i] = fittest[random.nextInt(fittest.length)];
+    }
+}
+
+@Override
+public String toString() {
+    return "Truncation (fraction " + fraction + ")";
+}
+
+}